@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.FileUtils;
+
+import de.acosix.maven.jshint.JSHinter;
+import de.acosix.maven.jshint.NashornJSHinter;
+import de.acosix.maven.jshint.RhinoJSHinter;
+
+/**
+ * This class provides the common setup of all benchmarks, most importantly the generation of deterministic script files of different
+ * shapes.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public final class BenchmarkSupport
+{
+
+    /**
+     * The shapes of script files used as benchmark input.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static enum Shape
+    {
+        /** a typical small script file with a few functions */
+        SMALL,
+        /** a large, formatted script file with hundreds of functions */
+        LARGE,
+        /** the content of {@link #LARGE} without any formatting on a single line */
+        MINIFIED,
+        /** a script file producing several hundred warnings */
+        WARNINGS;
+
+        /**
+         * @return the name of the script file of this shape
+         */
+        public String getFileName()
+        {
+            return this.name().toLowerCase(Locale.ENGLISH) + ".js";
+        }
+    }
+
+    /**
+     * The JSHint configuration used for all benchmarks - maxerr is raised so that JSHint does not stop reporting early on
+     * {@link Shape#WARNINGS}
+     */
+    public static final String DEFAULT_CONFIG = "{\"undef\": true, \"eqeqeq\": true, \"browser\": true, \"maxerr\": 100000}";
+
+    private BenchmarkSupport()
+    {
+        // no instances
+    }
+
+    /**
+     * Creates a new hinter for a specific engine and JSHint version.
+     *
+     * @param engine
+     *            the engine - either {@code rhino} or {@code nashorn}
+     * @param jshintVersion
+     *            the version of the embedded JSHint script to use
+     * @param log
+     *            the log to use
+     * @return the new hinter
+     */
+    public static JSHinter createHinter(final String engine, final String jshintVersion, final Log log)
+    {
+        final JSHinter hinter;
+        if ("rhino".equals(engine))
+        {
+            hinter = new RhinoJSHinter(log, jshintVersion, false);
+        }
+        else if ("nashorn".equals(engine))
+        {
+            hinter = new NashornJSHinter(log, jshintVersion, false);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Unsupported engine " + engine);
+        }
+        return hinter;
+    }
+
+    /**
+     * Creates a temporary directory containing one script file for each {@link Shape shape}.
+     *
+     * @return the directory
+     * @throws IOException
+     *             if the script files could not be written
+     */
+    public static File createScriptFiles() throws IOException
+    {
+        final File directory = Files.createTempDirectory("jshint-benchmark").toFile();
+        writeScriptFile(directory, Shape.SMALL, generateFunctions(3, false));
+        writeScriptFile(directory, Shape.LARGE, generateFunctions(500, false));
+        writeScriptFile(directory, Shape.MINIFIED, generateFunctions(500, true));
+        writeScriptFile(directory, Shape.WARNINGS, generateWarnings(200));
+        return directory;
+    }
+
+    /**
+     * Deletes a directory previously created via {@link #createScriptFiles()}.
+     *
+     * @param directory
+     *            the directory to delete
+     * @throws IOException
+     *             if the directory could not be deleted
+     */
+    public static void deleteScriptFiles(final File directory) throws IOException
+    {
+        if (directory != null)
+        {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    protected static void writeScriptFile(final File directory, final Shape shape, final String content) throws IOException
+    {
+        Files.write(new File(directory, shape.getFileName()).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static String generateFunctions(final int count, final boolean minified)
+    {
+        final String newLine = minified ? "" : "\n";
+        final String indent = minified ? "" : "    ";
+        final String space = minified ? "" : " ";
+
+        final StringBuilder sb = new StringBuilder(count * 400);
+        for (int idx = 0; idx < count; idx++)
+        {
+            sb.append("function compute").append(idx).append("(values)").append(space).append('{').append(newLine);
+            sb.append(indent).append("var total").append(space).append('=').append(space).append("0;").append(newLine);
+            sb.append(indent).append("var idx;").append(newLine);
+            sb.append(indent).append("for").append(space).append("(idx").append(space).append('=').append(space).append("0;").append(space)
+                    .append("idx").append(space).append('<').append(space).append("values.length;").append(space).append("idx++)")
+                    .append(space).append('{').append(newLine);
+            sb.append(indent).append(indent).append("if").append(space).append("(values[idx]").append(space).append('>').append(space)
+                    .append(idx % 7).append(')').append(space).append('{').append(newLine);
+            sb.append(indent).append(indent).append(indent).append("total").append(space).append("+=").append(space)
+                    .append("values[idx]").append(space).append('*').append(space).append(idx).append(';').append(newLine);
+            sb.append(indent).append(indent).append('}').append(space).append("else").append(space).append('{').append(newLine);
+            sb.append(indent).append(indent).append(indent).append("total").append(space).append("-=").append(space)
+                    .append("values[idx];").append(newLine);
+            sb.append(indent).append(indent).append('}').append(newLine);
+            sb.append(indent).append('}').append(newLine);
+            sb.append(indent).append("return").append(space).append('{').append(newLine);
+            sb.append(indent).append(indent).append("name:").append(space).append("'compute").append(idx).append("',").append(newLine);
+            sb.append(indent).append(indent).append("total:").append(space).append("total,").append(newLine);
+            sb.append(indent).append(indent).append("average:").append(space).append("values.length").append(space).append('>')
+                    .append(space).append('0').append(space).append('?').append(space).append("total").append(space).append('/')
+                    .append(space).append("values.length").append(space).append(':').append(space).append('0').append(newLine);
+            sb.append(indent).append("};").append(newLine);
+            sb.append('}').append(newLine);
+            if (!minified)
+            {
+                sb.append(newLine);
+            }
+        }
+        return sb.toString();
+    }
+
+    protected static String generateWarnings(final int count)
+    {
+        final StringBuilder sb = new StringBuilder(count * 150);
+        for (int idx = 0; idx < count; idx++)
+        {
+            // == comparison, assignment to / use of undeclared variable and missing semicolons
+            sb.append("function check").append(idx).append("(value) {\n");
+            sb.append("    if (value == null) {\n");
+            sb.append("        result").append(idx).append(" = ").append(idx).append('\n');
+            sb.append("    }\n");
+            sb.append("    return result").append(idx).append('\n');
+            sb.append("}\n\n");
+        }
+        return sb.toString();
+    }
+}
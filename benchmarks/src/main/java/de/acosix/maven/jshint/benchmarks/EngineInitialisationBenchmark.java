@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.acosix.maven.jshint.Error;
+import de.acosix.maven.jshint.JSHinter;
+import de.acosix.maven.jshint.benchmarks.BenchmarkSupport.Shape;
+
+/**
+ * This benchmark measures the cold initialisation of a JSHint engine, i.e. the time from creating a hinter in a fresh JVM to the completed
+ * validation of a small script file. Each fork performs exactly one measurement so that no state shared across hinters (e.g. compiled
+ * scripts) is warm.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class EngineInitialisationBenchmark
+{
+
+    @Param({ "rhino", "nashorn" })
+    public String engine;
+
+    @Param({ "2.9.1", "2.9.2", "2.9.3" })
+    public String jshintVersion;
+
+    protected File scriptDirectory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        this.scriptDirectory = BenchmarkSupport.createScriptFiles();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        BenchmarkSupport.deleteScriptFiles(this.scriptDirectory);
+    }
+
+    @Benchmark
+    public List<Error> coldInitialisation()
+    {
+        final JSHinter hinter = BenchmarkSupport.createHinter(this.engine, this.jshintVersion, new SilentLog());
+        return hinter.executeJSHint(this.scriptDirectory, Shape.SMALL.getFileName(), BenchmarkSupport.DEFAULT_CONFIG, true);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.acosix.maven.jshint.Error;
+import de.acosix.maven.jshint.RhinoJSHinter;
+
+/**
+ * This benchmark measures the engine-independent decoding of packed JSHint errors on the Java side. The packed data mirrors what the runner
+ * scripts emit for JSHint 2.9.x: evidence is only transferred when it is retained, and every batch of {@code maxerr} (default 50) warnings
+ * is followed by a fatal "Too many errors" finding without id and evidence. JSHint always provides the raw message, so raw values are
+ * never null. The cost of collecting and packing errors within the engines is covered by comparing the {@code lint} and
+ * {@code lintRelaxed} results for {@link BenchmarkSupport.Shape#WARNINGS} in {@link LintThroughputBenchmark}.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ErrorMarshallingBenchmark
+{
+
+    /**
+     * Exposes the decoding of packed errors without initialising any script engine.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    protected static class UnpackingJSHinter extends RhinoJSHinter
+    {
+
+        protected UnpackingJSHinter(final Log log)
+        {
+            super(log, "2.9.3", false);
+        }
+
+        protected List<Error> unpack(final Object packedErrors)
+        {
+            return this.unpackErrors(packedErrors);
+        }
+    }
+
+    // default value of the JSHint maxerr option after which a fatal finding aborts the validation of a file
+    protected static final int MAX_ERRORS_PER_FILE = 50;
+
+    @Param({ "false", "true" })
+    public boolean retainEvidence;
+
+    @Param({ "1000" })
+    public int packedErrorCount;
+
+    protected UnpackingJSHinter unpackingHinter;
+
+    protected String packedErrors;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        this.unpackingHinter = new UnpackingJSHinter(new SilentLog());
+        this.unpackingHinter.setRetainEvidence(this.retainEvidence);
+        this.packedErrors = packErrors(this.packedErrorCount, this.retainEvidence);
+    }
+
+    @Benchmark
+    public List<Error> unpack()
+    {
+        return this.unpackingHinter.unpack(this.packedErrors);
+    }
+
+    // mirrors the packing done in the runner scripts: id, code, raw, evidence, reason, line, character as <length>:<value> or ~ for null
+    protected static String packErrors(final int count, final boolean retainEvidence)
+    {
+        final StringBuilder sb = new StringBuilder(count * (retainEvidence ? 100 : 80));
+        for (int idx = 0; idx < count; idx++)
+        {
+            final int line = (idx % (MAX_ERRORS_PER_FILE + 1)) * 6 + 3;
+            if (idx % (MAX_ERRORS_PER_FILE + 1) == MAX_ERRORS_PER_FILE)
+            {
+                // fatal findings are thrown by JSHint and lack both id and evidence
+                pack(sb, null);
+                pack(sb, "E043");
+                pack(sb, "Too many errors.");
+                pack(sb, null);
+                pack(sb, "Too many errors. (25% scanned).");
+                pack(sb, String.valueOf(line));
+                pack(sb, "9");
+            }
+            else
+            {
+                final String undeclared = "result" + (idx % 200);
+                pack(sb, "(error)");
+                pack(sb, "W117");
+                pack(sb, "'{a}' is not defined.");
+                pack(sb, retainEvidence ? "        " + undeclared + " = " + idx : null);
+                pack(sb, "'" + undeclared + "' is not defined.");
+                pack(sb, String.valueOf(line));
+                pack(sb, "9");
+            }
+        }
+        return sb.toString();
+    }
+
+    protected static void pack(final StringBuilder sb, final String value)
+    {
+        if (value == null)
+        {
+            sb.append('~');
+        }
+        else
+        {
+            sb.append(value.length()).append(':').append(value);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.acosix.maven.jshint.Error;
+import de.acosix.maven.jshint.JSHinter;
+import de.acosix.maven.jshint.benchmarks.BenchmarkSupport.Shape;
+
+/**
+ * This benchmark measures the time to validate a single script file of a specific {@link Shape shape} with a warm JSHint engine. The
+ * {@code lintRelaxed} benchmark validates the same file with the options causing the {@link Shape#WARNINGS} findings relaxed, so that for
+ * that shape the difference to {@code lint} approximates the cost of collecting, packing and unpacking errors within the respective engine
+ * (select it via {@code -p shape=WARNINGS}).
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LintThroughputBenchmark
+{
+
+    protected static final String RELAXED_CONFIG = "{\"undef\": false, \"eqeqeq\": false, \"asi\": true, \"browser\": true, "
+            + "\"maxerr\": 100000}";
+
+    @Param({ "rhino", "nashorn" })
+    public String engine;
+
+    @Param({ "2.9.1", "2.9.2", "2.9.3" })
+    public String jshintVersion;
+
+    @Param({ "SMALL", "LARGE", "MINIFIED", "WARNINGS" })
+    public Shape shape;
+
+    protected File scriptDirectory;
+
+    protected JSHinter hinter;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        this.scriptDirectory = BenchmarkSupport.createScriptFiles();
+        this.hinter = BenchmarkSupport.createHinter(this.engine, this.jshintVersion, new SilentLog());
+        // initialise engine outside of measurement
+        this.hinter.executeJSHint(this.scriptDirectory, Shape.SMALL.getFileName(), BenchmarkSupport.DEFAULT_CONFIG, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        BenchmarkSupport.deleteScriptFiles(this.scriptDirectory);
+    }
+
+    @Benchmark
+    public List<Error> lint()
+    {
+        return this.hinter.executeJSHint(this.scriptDirectory, this.shape.getFileName(), BenchmarkSupport.DEFAULT_CONFIG, true);
+    }
+
+    @Benchmark
+    public List<Error> lintRelaxed()
+    {
+        return this.hinter.executeJSHint(this.scriptDirectory, this.shape.getFileName(), RELAXED_CONFIG, true);
+    }
+}
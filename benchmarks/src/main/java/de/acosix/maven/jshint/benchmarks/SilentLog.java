@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.benchmarks;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Instances of this class discard all log output so that benchmarks do not measure console I/O.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class SilentLog implements Log
+{
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDebugEnabled()
+    {
+        return false;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void debug(final CharSequence content)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void debug(final CharSequence content, final Throwable error)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void debug(final Throwable error)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isInfoEnabled()
+    {
+        return false;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void info(final CharSequence content)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void info(final CharSequence content, final Throwable error)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void info(final Throwable error)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWarnEnabled()
+    {
+        return false;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void warn(final CharSequence content)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void warn(final CharSequence content, final Throwable error)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void warn(final Throwable error)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isErrorEnabled()
+    {
+        return false;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(final CharSequence content)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(final CharSequence content, final Throwable error)
+    {
+        // NO-OP
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(final Throwable error)
+    {
+        // NO-OP
+    }
+}
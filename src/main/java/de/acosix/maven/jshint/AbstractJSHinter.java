@@ -15,23 +15,18 @@
  */
 package de.acosix.maven.jshint;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
-import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
+import de.acosix.maven.jshint.JSHintMetrics.Phase;
+import de.acosix.maven.jshint.JSHintSourcePrefetcher.ScriptSource;
+
 /**
  * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
  */
@@ -40,7 +35,17 @@ public abstract class AbstractJSHinter implements JSHinter
 
     protected final Log log;
 
-    protected Map<File, String> effectiveJSHintConfig = new HashMap<>();
+    protected JSHintConfigIndex configIndex;
+
+    protected JSHintResultCache resultCache;
+
+    protected JSHintSourcePrefetcher sourcePrefetcher;
+
+    protected boolean retainEvidence;
+
+    protected JSHintValuePool valuePool;
+
+    protected JSHintMetrics metrics;
 
     public AbstractJSHinter(final Log log)
     {
@@ -52,6 +57,66 @@ public abstract class AbstractJSHinter implements JSHinter
         this.log = log;
     }
 
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setResultCache(final JSHintResultCache resultCache)
+    {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSourcePrefetcher(final JSHintSourcePrefetcher sourcePrefetcher)
+    {
+        this.sourcePrefetcher = sourcePrefetcher;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setConfigIndex(final JSHintConfigIndex configIndex)
+    {
+        this.configIndex = configIndex;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRetainEvidence(final boolean retainEvidence)
+    {
+        this.retainEvidence = retainEvidence;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setValuePool(final JSHintValuePool valuePool)
+    {
+        this.valuePool = valuePool;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setMetrics(final JSHintMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
     /**
      *
      * {@inheritDoc}
@@ -96,128 +161,375 @@ public abstract class AbstractJSHinter implements JSHinter
             this.log.debug("Using effective JSHint config: " + effectiveJSHintConfigContent);
         }
 
-        final List<Error> errors = this.executeJSHintImpl(baseDirectory, path, effectiveJSHintConfigContent);
+        List<Error> errors = null;
+        if (this.resultCache != null)
+        {
+            errors = this.resultCache.lookup(baseDirectory, path, effectiveJSHintConfigContent);
+            if (errors != null && this.log.isDebugEnabled())
+            {
+                this.log.debug("Using cached JSHint result for unchanged script file");
+            }
+        }
+
+        if (errors == null)
+        {
+            errors = this.executeJSHintImpl(baseDirectory, path, effectiveJSHintConfigContent);
+            if (this.resultCache != null)
+            {
+                this.resultCache.store(path, effectiveJSHintConfigContent, errors);
+            }
+        }
 
         this.reportErrors(errors);
 
         return errors;
     }
 
-    protected abstract List<Error> executeJSHintImpl(File baseDirectory, String path, String defaultJSHintConfigContent);
-
-    protected List<String> readSourceLines(final File baseDirectory, final String path)
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<List<Error>> executeJSHint(final File baseDirectory, final List<String> paths,
+            final String defaultJSHintConfigContent, final boolean ignoreJSConfigFileOnPaths)
     {
-        final List<String> sourceLines = new ArrayList<>();
+        if (baseDirectory == null)
+        {
+            throw new IllegalArgumentException("baseDirectory not provided");
+        }
 
-        FileInputStream fin = null;
-        InputStreamReader isr = null;
-        BufferedReader reader = null;
-        try
+        if (paths == null || paths.isEmpty())
         {
-            final File jshintIgnoreFile = new File(baseDirectory, path);
-            fin = new FileInputStream(jshintIgnoreFile);
-            isr = new InputStreamReader(fin, StandardCharsets.UTF_8);
-            reader = new BufferedReader(isr);
+            throw new IllegalArgumentException("paths not provided");
+        }
 
-            String line = null;
-            while ((line = reader.readLine()) != null)
+        if (StringUtils.isBlank(defaultJSHintConfigContent))
+        {
+            throw new IllegalArgumentException("defaultJSHintConfigContent not provided");
+        }
+
+        final List<List<Error>> errorsByPath = new ArrayList<>(paths.size());
+        final List<String> pathsToValidate = new ArrayList<>(paths.size());
+        final List<String> effectiveJSHintConfigContents = new ArrayList<>(paths.size());
+
+        for (final String path : paths)
+        {
+            if (StringUtils.isBlank(path))
             {
-                sourceLines.add(line);
+                throw new IllegalArgumentException("paths must not contain blank elements");
             }
+
+            String effectiveJSHintConfigContent;
+            if (ignoreJSConfigFileOnPaths)
+            {
+                effectiveJSHintConfigContent = defaultJSHintConfigContent;
+            }
+            else
+            {
+                effectiveJSHintConfigContent = this.lookupCustomJSHintConfig(baseDirectory, path);
+                if (StringUtils.isBlank(effectiveJSHintConfigContent))
+                {
+                    effectiveJSHintConfigContent = defaultJSHintConfigContent;
+                }
+            }
+
+            List<Error> errors = null;
+            if (this.resultCache != null)
+            {
+                errors = this.resultCache.lookup(baseDirectory, path, effectiveJSHintConfigContent);
+            }
+
+            if (errors == null)
+            {
+                pathsToValidate.add(path);
+                effectiveJSHintConfigContents.add(effectiveJSHintConfigContent);
+            }
+            errorsByPath.add(errors);
+        }
+
+        if (this.log.isDebugEnabled())
+        {
+            this.log.debug(MessageFormat.format("Executing JSHint on batch of {0} script files ({1} cached)", String.valueOf(paths.size()),
+                    String.valueOf(paths.size() - pathsToValidate.size())));
         }
-        catch (final IOException ioex)
+
+        if (!pathsToValidate.isEmpty())
         {
-            throw new RuntimeException(new MojoExecutionException("Error loading " + baseDirectory + File.separator + path, ioex));
+            final List<List<Error>> batchErrors = this.executeJSHintBatchImpl(baseDirectory, pathsToValidate,
+                    effectiveJSHintConfigContents);
+            for (int idx = 0, batchIdx = 0, max = paths.size(); idx < max; idx++)
+            {
+                if (errorsByPath.get(idx) == null)
+                {
+                    final List<Error> errors = batchErrors.get(batchIdx);
+                    errorsByPath.set(idx, errors);
+                    if (this.resultCache != null)
+                    {
+                        this.resultCache.store(paths.get(idx), effectiveJSHintConfigContents.get(batchIdx), errors);
+                    }
+                    batchIdx++;
+                }
+            }
         }
-        finally
+
+        // report per file in order of the batch to keep log output identical to individual execution
+        for (int idx = 0, max = paths.size(); idx < max; idx++)
         {
-            IOUtil.close(reader);
-            IOUtil.close(isr);
-            IOUtil.close(fin);
+            this.log.info(MessageFormat.format("Executing JSHint on {0}{1}{2}", baseDirectory.getPath(), File.separator, paths.get(idx)));
+            this.reportErrors(errorsByPath.get(idx));
         }
 
-        return sourceLines;
+        return errorsByPath;
     }
 
-    protected String lookupCustomJSHintConfig(final File baseDirectory, final String path)
+    protected abstract List<Error> executeJSHintImpl(File baseDirectory, String path, String defaultJSHintConfigContent);
+
+    protected abstract List<List<Error>> executeJSHintBatchImpl(File baseDirectory, List<String> paths,
+            List<String> effectiveJSHintConfigContents);
+
+    /**
+     * Decodes the errors transferred from the runner script in packed form. Each error consists of the values for {@code id},
+     * {@code code}, {@code raw}, {@code evidence}, {@code reason}, {@code line} and {@code character}, each encoded as
+     * {@code <length>:<value>} or {@code ~} for {@code null} / {@code undefined}.
+     *
+     * @param packedErrors
+     *            the packed errors
+     * @return the decoded errors
+     */
+    protected List<Error> unpackErrors(final Object packedErrors)
     {
-        String customJSHintConfig = null;
+        final String packed = packedErrors != null ? packedErrors.toString() : "";
+        final List<Error> errors = new ArrayList<>();
+        final JSHintValuePool valuePool = this.valuePool != null ? this.valuePool : new JSHintValuePool();
 
-        final int lastSeparatorIdx = path.lastIndexOf(File.separator);
-        if (lastSeparatorIdx != -1)
+        final int[] position = new int[] { 0 };
+        while (position[0] < packed.length())
         {
-            final String subPath = path.substring(0, lastSeparatorIdx);
+            final String id = valuePool.share(unpackValue(packed, position));
+            final String code = valuePool.share(unpackValue(packed, position));
+            final String raw = valuePool.share(unpackValue(packed, position));
+            final String evidence = this.retainEvidence ? unpackValue(packed, position) : skipValue(packed, position);
+            final String reason = valuePool.share(unpackValue(packed, position));
+            final String line = unpackValue(packed, position);
+            final String character = unpackValue(packed, position);
+
+            errors.add(new Error(id, code, raw, evidence, reason, toInt(line), toInt(character)));
+        }
 
-            final File pathKey = new File(baseDirectory, subPath);
-            if (this.effectiveJSHintConfig.containsKey(pathKey))
+        return errors;
+    }
+
+    protected static String unpackValue(final String packed, final int[] position)
+    {
+        final String value;
+        final int start = position[0];
+        if (packed.charAt(start) == '~')
+        {
+            value = null;
+            position[0] = start + 1;
+        }
+        else
+        {
+            final int separator = packed.indexOf(':', start);
+            if (separator == -1)
             {
-                customJSHintConfig = this.effectiveJSHintConfig.get(pathKey);
+                throw new IllegalStateException("Invalid packed error data at position " + start);
             }
-            else
+            final int length = Integer.parseInt(packed.substring(start, separator));
+            value = packed.substring(separator + 1, separator + 1 + length);
+            position[0] = separator + 1 + length;
+        }
+        return value;
+    }
+
+    protected static String skipValue(final String packed, final int[] position)
+    {
+        final int start = position[0];
+        if (packed.charAt(start) == '~')
+        {
+            position[0] = start + 1;
+        }
+        else
+        {
+            final int separator = packed.indexOf(':', start);
+            if (separator == -1)
             {
-                final File configFile = new File(pathKey, ".jshintrc");
-                if (configFile.isFile() && configFile.exists())
-                {
-                    customJSHintConfig = this.readSource(configFile);
-                    if (this.log.isDebugEnabled())
-                    {
-                        this.log.debug(MessageFormat.format("Loaded custom JSHint config from {0}: {1}", configFile, customJSHintConfig));
-                    }
-                    this.effectiveJSHintConfig.put(pathKey, customJSHintConfig);
-                }
-                else
-                {
-                    customJSHintConfig = this.lookupCustomJSHintConfig(baseDirectory, subPath);
-                }
+                throw new IllegalStateException("Invalid packed error data at position " + start);
             }
+            position[0] = separator + 1 + Integer.parseInt(packed.substring(start, separator));
         }
-        else
+        return null;
+    }
+
+    protected static int toInt(final String value)
+    {
+        int result = 0;
+        if (value != null)
         {
-            if (this.effectiveJSHintConfig.containsKey(baseDirectory))
+            try
             {
-                customJSHintConfig = this.effectiveJSHintConfig.get(baseDirectory);
+                result = (int) Double.parseDouble(value);
             }
-            else
+            catch (final NumberFormatException nfex)
             {
-                final File configFile = new File(baseDirectory, ".jshintrc");
-                if (configFile.isFile() && configFile.exists())
-                {
-                    customJSHintConfig = this.readSource(configFile);
-                    if (this.log.isDebugEnabled())
-                    {
-                        this.log.debug(MessageFormat.format("Loaded custom JSHint config from {0}: {1}", configFile, customJSHintConfig));
-                    }
-                    this.effectiveJSHintConfig.put(baseDirectory, customJSHintConfig);
-                }
+                // JavaScript NaN / non-numeric values convert to 0
+                result = 0;
             }
         }
+        return result;
+    }
+
+    protected String readSource(final File baseDirectory, final String path)
+    {
+        final JSHintEvent event = JSHintEvents.begin(JSHintEvents.Type.SOURCE_READ);
+        final long startNanos = System.nanoTime();
+        final ScriptSource source;
+        if (this.sourcePrefetcher != null)
+        {
+            source = this.sourcePrefetcher.getSource(baseDirectory, path);
+        }
+        else
+        {
+            source = JSHintSourcePrefetcher.readSource(baseDirectory, path);
+        }
+        this.recordPhase(Phase.SOURCE_READ, startNanos);
+        if (event != null)
+        {
+            this.commitEvent(event, baseDirectory, Collections.singletonList(path), -1);
+        }
 
-        return customJSHintConfig;
+        if (this.resultCache != null)
+        {
+            // the result is cached for the content actually validated, even if the script file changes in the meantime
+            this.resultCache.recordSource(path, source);
+        }
+        return source.getContent();
     }
 
-    protected String readSource(final File contentFile)
+    protected String lookupCustomJSHintConfig(final File baseDirectory, final String path)
     {
-        final String source;
+        final JSHintEvent event = JSHintEvents.begin(JSHintEvents.Type.CONFIG_RESOLUTION);
+        final long startNanos = System.nanoTime();
+        if (this.configIndex == null || !this.configIndex.getBaseDirectory().equals(baseDirectory))
+        {
+            this.configIndex = new JSHintConfigIndex(this.log, baseDirectory);
+        }
 
-        FileInputStream fin = null;
-        InputStreamReader isr = null;
-        try
+        final String config = this.configIndex.lookup(path);
+        this.recordPhase(Phase.CONFIG_LOOKUP, startNanos);
+        if (event != null)
         {
-            fin = new FileInputStream(contentFile);
-            isr = new InputStreamReader(fin, StandardCharsets.UTF_8);
-            source = IOUtil.toString(isr);
+            event.setPath(path);
+            event.setEngine(this.getEngineName());
+            event.commit();
         }
-        catch (final IOException ioex)
+        return config;
+    }
+
+    /**
+     * Completes an event for a set of script files.
+     *
+     * @param event
+     *            the event to complete
+     * @param baseDirectory
+     *            the base directory that contains the script files
+     * @param paths
+     *            the paths relative to the base directory that denote the script files
+     * @param errorCount
+     *            the number of errors found in the script files or {@code -1} if not applicable to the event
+     */
+    protected void commitEvent(final JSHintEvent event, final File baseDirectory, final List<String> paths, final int errorCount)
+    {
+        long size = 0;
+        for (final String path : paths)
         {
-            throw new RuntimeException(new MojoExecutionException("Error loading " + contentFile.toPath(), ioex));
+            size += new File(baseDirectory, path).length();
         }
-        finally
+
+        event.setPath(paths.size() == 1 ? paths.get(0) : StringUtils.join(paths.iterator(), ", "));
+        event.setSize(size);
+        event.setEngine(this.getEngineName());
+        event.setErrorCount(Math.max(0, errorCount));
+        event.commit();
+    }
+
+    /**
+     * Completes an event for a JSHint invocation on a set of script files.
+     *
+     * @param event
+     *            the event to complete - may be {@code null} if the event type is not being recorded
+     * @param baseDirectory
+     *            the base directory that contains the script files
+     * @param paths
+     *            the paths relative to the base directory that denote the script files
+     * @param errorsByPath
+     *            the errors found in the script files
+     */
+    protected void commitLintEvent(final JSHintEvent event, final File baseDirectory, final List<String> paths,
+            final List<List<Error>> errorsByPath)
+    {
+        if (event != null)
         {
-            IOUtil.close(isr);
-            IOUtil.close(fin);
+            int errorCount = 0;
+            for (final List<Error> errors : errorsByPath)
+            {
+                errorCount += errors.size();
+            }
+            this.commitEvent(event, baseDirectory, paths, errorCount);
         }
+    }
 
-        return source;
+    /**
+     * @return the name of the script engine used by this instance
+     */
+    protected abstract String getEngineName();
+
+    protected void recordPhase(final Phase phase, final long startNanos)
+    {
+        if (this.metrics != null)
+        {
+            this.metrics.recordPhase(phase, startNanos);
+        }
+    }
+
+    /**
+     * Creates the timer to measure the validation of the individual script files of a batch if metrics are collected.
+     *
+     * @param batchSize
+     *            the number of script files in the batch
+     * @return the timer or {@code null} if no metrics are collected
+     */
+    protected JSHintLintTimer createLintTimer(final int batchSize)
+    {
+        return this.metrics != null ? new JSHintLintTimer(batchSize) : null;
+    }
+
+    /**
+     * Records the duration of a JSHint invocation for a set of script files.
+     *
+     * @param baseDirectory
+     *            the base directory that contains the script files
+     * @param paths
+     *            the paths relative to the base directory that denote the script files
+     * @param startNanos
+     *            the start of the invocation as obtained from {@link System#nanoTime()}
+     * @param lintTimer
+     *            the timer holding the durations measured for the individual script files of a batch - may be {@code null} if only a
+     *            single script file has been validated, in which case the duration of the invocation is recorded for it
+     */
+    protected void recordLint(final File baseDirectory, final List<String> paths, final long startNanos, final JSHintLintTimer lintTimer)
+    {
+        if (this.metrics != null)
+        {
+            final long nanos = this.metrics.recordPhase(Phase.LINT, startNanos);
+
+            for (int idx = 0, max = paths.size(); idx < max; idx++)
+            {
+                final String path = paths.get(idx);
+                final long fileNanos = lintTimer != null ? lintTimer.getFileNanos(idx) : nanos;
+                this.metrics.recordFile(path, new File(baseDirectory, path).length(), fileNanos);
+            }
+        }
     }
 
     protected void reportErrors(final List<Error> errors)
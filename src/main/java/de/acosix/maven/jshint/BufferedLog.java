@@ -0,0 +1,343 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Instances of this class collect log output in memory so that it can be replayed to the actual log at a later time. This is used to keep
+ * the log output of concurrently validated script files in a stable order.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class BufferedLog implements Log
+{
+
+    protected static enum Level
+    {
+        DEBUG, INFO, WARN, ERROR;
+    }
+
+    protected static class Entry
+    {
+
+        protected final Level level;
+
+        protected final CharSequence content;
+
+        protected final Throwable error;
+
+        protected Entry(final Level level, final CharSequence content, final Throwable error)
+        {
+            this.level = level;
+            this.content = content;
+            this.error = error;
+        }
+    }
+
+    protected volatile Log delegate;
+
+    protected final List<Entry> entries = new ArrayList<>();
+
+    public BufferedLog(final Log delegate)
+    {
+        if (delegate == null)
+        {
+            throw new IllegalArgumentException("delegate not provided");
+        }
+
+        this.delegate = delegate;
+    }
+
+    /**
+     * Changes the log to which checks of enabled log levels are delegated.
+     *
+     * @param delegate
+     *            the log to which to delegate
+     */
+    public void setDelegate(final Log delegate)
+    {
+        if (delegate == null)
+        {
+            throw new IllegalArgumentException("delegate not provided");
+        }
+
+        this.delegate = delegate;
+    }
+
+    /**
+     * Replays all buffered log entries to the provided log and clears the buffer.
+     *
+     * @param log
+     *            the log to which to write the buffered entries
+     */
+    public synchronized void flushTo(final Log log)
+    {
+        for (final Entry entry : this.entries)
+        {
+            switch (entry.level)
+            {
+                case DEBUG:
+                    this.writeDebug(log, entry);
+                    break;
+                case INFO:
+                    this.writeInfo(log, entry);
+                    break;
+                case WARN:
+                    this.writeWarn(log, entry);
+                    break;
+                case ERROR:
+                    this.writeError(log, entry);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported log level " + entry.level);
+            }
+        }
+        this.entries.clear();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDebugEnabled()
+    {
+        return this.delegate.isDebugEnabled();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void debug(final CharSequence content)
+    {
+        this.addEntry(Level.DEBUG, content, null);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void debug(final CharSequence content, final Throwable error)
+    {
+        this.addEntry(Level.DEBUG, content, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void debug(final Throwable error)
+    {
+        this.addEntry(Level.DEBUG, null, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isInfoEnabled()
+    {
+        return this.delegate.isInfoEnabled();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void info(final CharSequence content)
+    {
+        this.addEntry(Level.INFO, content, null);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void info(final CharSequence content, final Throwable error)
+    {
+        this.addEntry(Level.INFO, content, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void info(final Throwable error)
+    {
+        this.addEntry(Level.INFO, null, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWarnEnabled()
+    {
+        return this.delegate.isWarnEnabled();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void warn(final CharSequence content)
+    {
+        this.addEntry(Level.WARN, content, null);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void warn(final CharSequence content, final Throwable error)
+    {
+        this.addEntry(Level.WARN, content, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void warn(final Throwable error)
+    {
+        this.addEntry(Level.WARN, null, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isErrorEnabled()
+    {
+        return this.delegate.isErrorEnabled();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(final CharSequence content)
+    {
+        this.addEntry(Level.ERROR, content, null);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(final CharSequence content, final Throwable error)
+    {
+        this.addEntry(Level.ERROR, content, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(final Throwable error)
+    {
+        this.addEntry(Level.ERROR, null, error);
+    }
+
+    protected synchronized void addEntry(final Level level, final CharSequence content, final Throwable error)
+    {
+        this.entries.add(new Entry(level, content, error));
+    }
+
+    protected void writeDebug(final Log log, final Entry entry)
+    {
+        if (entry.content == null)
+        {
+            log.debug(entry.error);
+        }
+        else if (entry.error == null)
+        {
+            log.debug(entry.content);
+        }
+        else
+        {
+            log.debug(entry.content, entry.error);
+        }
+    }
+
+    protected void writeInfo(final Log log, final Entry entry)
+    {
+        if (entry.content == null)
+        {
+            log.info(entry.error);
+        }
+        else if (entry.error == null)
+        {
+            log.info(entry.content);
+        }
+        else
+        {
+            log.info(entry.content, entry.error);
+        }
+    }
+
+    protected void writeWarn(final Log log, final Entry entry)
+    {
+        if (entry.content == null)
+        {
+            log.warn(entry.error);
+        }
+        else if (entry.error == null)
+        {
+            log.warn(entry.content);
+        }
+        else
+        {
+            log.warn(entry.content, entry.error);
+        }
+    }
+
+    protected void writeError(final Log log, final Entry entry)
+    {
+        if (entry.content == null)
+        {
+            log.error(entry.error);
+        }
+        else if (entry.error == null)
+        {
+            log.error(entry.content);
+        }
+        else
+        {
+            log.error(entry.content, entry.error);
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package de.acosix.maven.jshint;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -32,9 +33,13 @@ import javanet.staxutils.IndentingXMLStreamWriter;
 /**
  * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
  */
-public class CheckstyleJSHintReporter implements JSHintReporter
+public class CheckstyleJSHintReporter implements StreamingJSHintReporter
 {
 
+    protected OutputStream os;
+
+    protected XMLStreamWriter writer;
+
     /**
      *
      * {@inheritDoc}
@@ -42,6 +47,26 @@ public class CheckstyleJSHintReporter implements JSHintReporter
     @Override
     public void generateReport(final Map<String, List<Error>> errorsByFile, final OutputStream os)
     {
+        this.startReport(os);
+        for (final Entry<String, List<Error>> fileEntry : errorsByFile.entrySet())
+        {
+            this.writeFile(fileEntry.getKey(), fileEntry.getValue());
+        }
+        this.endReport();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void startReport(final OutputStream os)
+    {
+        if (this.writer != null)
+        {
+            throw new IllegalStateException("Report has already been started");
+        }
+
         final XMLOutputFactory outFactory = XMLOutputFactory.newInstance();
 
         try
@@ -53,37 +78,92 @@ public class CheckstyleJSHintReporter implements JSHintReporter
             w.writeStartElement("checkstyle");
             w.writeAttribute("version", "7.1.2");
 
-            for (final Entry<String, List<Error>> fileEntry : errorsByFile.entrySet())
+            this.os = os;
+            this.writer = w;
+        }
+        catch (final XMLStreamException xsex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error writing checkstyle report output", xsex));
+        }
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void reportFile(final String filePath, final List<Error> errors)
+    {
+        // like the non-streaming report, only list files with findings
+        if (!errors.isEmpty())
+        {
+            this.writeFile(filePath, errors);
+            this.flush();
+        }
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void endReport()
+    {
+        if (this.writer == null)
+        {
+            throw new IllegalStateException("Report has not been started");
+        }
+
+        try
+        {
+            this.writer.writeEndElement();
+            this.writer.writeEndDocument();
+            this.flush();
+        }
+        catch (final XMLStreamException xsex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error writing checkstyle report output", xsex));
+        }
+        finally
+        {
+            this.writer = null;
+            this.os = null;
+        }
+    }
+
+    protected void writeFile(final String filePath, final List<Error> errors)
+    {
+        if (this.writer == null)
+        {
+            throw new IllegalStateException("Report has not been started");
+        }
+
+        try
+        {
+            final XMLStreamWriter w = this.writer;
+            w.writeStartElement("file");
+            w.writeAttribute("name", filePath);
+
+            for (final Error error : errors)
             {
-                final String filePath = fileEntry.getKey();
-                final List<Error> errors = fileEntry.getValue();
+                w.writeStartElement("error");
 
-                w.writeStartElement("file");
-                w.writeAttribute("name", filePath);
+                w.writeAttribute("line", String.valueOf(error.getLine()));
+                w.writeAttribute("column", String.valueOf(error.getCharacter()));
 
-                for (final Error error : errors)
+                String severity;
+                final String code = error.getCode();
+                // JSHint should only produce EXXX and WXXX error codes
+                if (code.startsWith("E"))
+                {
+                    severity = "error";
+                }
+                else
                 {
-                    w.writeStartElement("error");
-
-                    w.writeAttribute("line", String.valueOf(error.getLine()));
-                    w.writeAttribute("column", String.valueOf(error.getCharacter()));
-
-                    String severity;
-                    final String code = error.getCode();
-                    // JSHint should only produce EXXX and WXXX error codes
-                    if (code.startsWith("E"))
-                    {
-                        severity = "error";
-                    }
-                    else
-                    {
-                        severity = "warning";
-                    }
-                    w.writeAttribute("severity", severity);
-                    w.writeAttribute("message", error.getReason());
-
-                    w.writeEndElement();
+                    severity = "warning";
                 }
+                w.writeAttribute("severity", severity);
+                w.writeAttribute("message", error.getReason());
 
                 w.writeEndElement();
             }
@@ -96,4 +176,17 @@ public class CheckstyleJSHintReporter implements JSHintReporter
         }
     }
 
+    protected void flush()
+    {
+        try
+        {
+            this.writer.flush();
+            this.os.flush();
+        }
+        catch (final XMLStreamException | IOException ex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error writing checkstyle report output", ex));
+        }
+    }
+
 }
@@ -18,12 +18,17 @@ package de.acosix.maven.jshint;
 import java.io.Serializable;
 
 /**
+ * Instances of this class represent a single finding (warning or error) reported by JSHint. As the same codes and reasons are reported
+ * for large numbers of findings, hinters share these values between findings via a {@link JSHintValuePool pool} scoped to the current
+ * execution, and line and character are packed into a single primitive. The evidence (the source line of the finding) is only retained if
+ * explicitly requested from the hinter, as it would otherwise hold a copy of a source line for every single finding.
+ *
  * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
  */
 public class Error implements Serializable
 {
 
-    private static final long serialVersionUID = -8665893495601916972L;
+    private static final long serialVersionUID = 4027409357702734912L;
 
     private final String id;
 
@@ -35,9 +40,8 @@ public class Error implements Serializable
 
     private final String reason;
 
-    private final int line;
-
-    private final int character;
+    // line in upper, character in lower 32 bits
+    private final long position;
 
     public Error(final String id, final String code, final String raw, final String evidence, final String reason, final int line,
             final int character)
@@ -47,8 +51,7 @@ public class Error implements Serializable
         this.raw = raw;
         this.evidence = evidence;
         this.reason = reason;
-        this.line = line;
-        this.character = character;
+        this.position = ((long) line << 32) | (character & 0xFFFFFFFFL);
     }
 
     /**
@@ -76,7 +79,7 @@ public class Error implements Serializable
     }
 
     /**
-     * @return the evidence
+     * @return the evidence - this will be {@code null} unless the hinter was set to retain evidence
      */
     public String getEvidence()
     {
@@ -96,7 +99,7 @@ public class Error implements Serializable
      */
     public int getLine()
     {
-        return this.line;
+        return (int) (this.position >> 32);
     }
 
     /**
@@ -104,7 +107,6 @@ public class Error implements Serializable
      */
     public int getCharacter()
     {
-        return this.character;
+        return (int) this.position;
     }
-
 }
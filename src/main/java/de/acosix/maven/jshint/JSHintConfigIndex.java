@@ -0,0 +1,299 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Instances of this class map the directories of a source tree to the custom JSHint configuration effective for script files contained in
+ * them. Each directory is recorded with either the content of the {@code .jshintrc} file it contains, the configuration inherited from its
+ * parent directory or the absence of any custom configuration, so that resolving the configuration for a script file requires only a single
+ * lookup once the directory has been indexed.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintConfigIndex
+{
+
+    protected static final String CONFIG_FILE_NAME = JSHintSourceScanner.JSHINT_CONFIG_FILE_NAME;
+
+    // marker for directories without any custom configuration (ConcurrentHashMap does not support null values)
+    protected static final String NO_CONFIG = new String();
+
+    protected final Log log;
+
+    protected final File baseDirectory;
+
+    protected final Map<String, String> configByDirectory = new ConcurrentHashMap<>();
+
+    protected volatile Set<String> configDirectories;
+
+    public JSHintConfigIndex(final Log log, final File baseDirectory)
+    {
+        if (log == null)
+        {
+            throw new IllegalArgumentException("log not provided");
+        }
+
+        if (baseDirectory == null)
+        {
+            throw new IllegalArgumentException("baseDirectory not provided");
+        }
+
+        this.log = log;
+        this.baseDirectory = baseDirectory;
+    }
+
+    /**
+     * Creates an index that does not check the file system for {@code .jshintrc} files but only considers the directories
+     * {@link #addConfigDirectory(String) added} to it, e.g. while the script files are still being scanned. This requires that any
+     * directory is added before the first lookup for a script file within it or any of its sub-directories.
+     *
+     * @param log
+     *            the log to use
+     * @param baseDirectory
+     *            the base directory of the source tree
+     * @return the new index without any known config directories
+     */
+    public static JSHintConfigIndex createIncremental(final Log log, final File baseDirectory)
+    {
+        final JSHintConfigIndex configIndex = new JSHintConfigIndex(log, baseDirectory);
+        configIndex.setConfigDirectories(Collections.<String> emptyList());
+        return configIndex;
+    }
+
+    /**
+     * @return the baseDirectory
+     */
+    public File getBaseDirectory()
+    {
+        return this.baseDirectory;
+    }
+
+    /**
+     * Sets the complete set of directories known to contain a {@code .jshintrc} file, e.g. as determined during the scan for script files.
+     * This avoids having to check the file system for the presence of a {@code .jshintrc} file in any directory.
+     *
+     * @param configDirectories
+     *            the paths relative to the base directory of all directories containing a {@code .jshintrc} file - the base directory
+     *            itself is denoted by an empty string
+     */
+    public void setConfigDirectories(final Collection<String> configDirectories)
+    {
+        if (configDirectories != null)
+        {
+            final Set<String> knownConfigDirectories = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            knownConfigDirectories.addAll(configDirectories);
+            this.configDirectories = knownConfigDirectories;
+        }
+        else
+        {
+            this.configDirectories = null;
+        }
+    }
+
+    /**
+     * Adds a directory to the set of directories known to contain a {@code .jshintrc} file. This allows the set to be completed
+     * incrementally while script files are being validated, as long as any directory is added before the first lookup for a script file
+     * within it or any of its sub-directories.
+     *
+     * @param configDirectory
+     *            the path relative to the base directory of the directory containing a {@code .jshintrc} file - the base directory itself
+     *            is denoted by an empty string
+     */
+    public void addConfigDirectory(final String configDirectory)
+    {
+        if (this.configDirectories == null)
+        {
+            throw new IllegalStateException("Set of known config directories has not been initialised");
+        }
+        this.configDirectories.add(configDirectory);
+    }
+
+    /**
+     * Looks up the custom JSHint configuration effective for a script file.
+     *
+     * @param path
+     *            the path relative to the base directory that denotes the script file
+     * @return the content of the effective custom configuration or {@code null} if no custom configuration applies to the script file
+     */
+    public String lookup(final String path)
+    {
+        final String directoryPath = this.getDirectoryPath(path);
+
+        String config = this.configByDirectory.get(directoryPath);
+        if (config == null)
+        {
+            config = this.resolveDirectory(directoryPath);
+        }
+
+        return config != NO_CONFIG ? config : null;
+    }
+
+    protected String getDirectoryPath(final String path)
+    {
+        final int lastSeparatorIdx = path.lastIndexOf(File.separatorChar);
+        return lastSeparatorIdx != -1 ? path.substring(0, lastSeparatorIdx) : "";
+    }
+
+    protected String resolveDirectory(final String directoryPath)
+    {
+        String config = this.configByDirectory.get(directoryPath);
+        if (config == null)
+        {
+            final File directory = directoryPath.isEmpty() ? this.baseDirectory : new File(this.baseDirectory, directoryPath);
+            final File configFile = new File(directory, CONFIG_FILE_NAME);
+            final boolean hasConfigFile = this.configDirectories != null ? this.configDirectories.contains(directoryPath)
+                    : configFile.isFile();
+            if (hasConfigFile)
+            {
+                config = this.readConfig(configFile);
+                if (this.log.isDebugEnabled())
+                {
+                    this.log.debug(MessageFormat.format("Loaded custom JSHint config from {0}: {1}", configFile, config));
+                }
+            }
+            else if (directoryPath.isEmpty())
+            {
+                config = NO_CONFIG;
+            }
+            else
+            {
+                // inherit from parent (which may itself be NO_CONFIG)
+                config = this.resolveDirectory(this.getDirectoryPath(directoryPath));
+            }
+
+            this.configByDirectory.put(directoryPath, config);
+        }
+        return config;
+    }
+
+    /**
+     * Strips any JavaScript-style line and block comments from the content of a JSHint configuration file, as supported by the JSHint
+     * command line interface but not by {@code JSON.parse}. Line breaks within comments are retained so that line numbers in any parsing
+     * errors still match the original file.
+     *
+     * @param config
+     *            the content of the configuration file
+     * @return the content without comments
+     */
+    public static String stripComments(final String config)
+    {
+        final StringBuilder sb = new StringBuilder(config.length());
+
+        char stringDelimiter = 0;
+        boolean inLineComment = false;
+        boolean inBlockComment = false;
+        for (int idx = 0, max = config.length(); idx < max; idx++)
+        {
+            final char c = config.charAt(idx);
+            final char next = idx + 1 < max ? config.charAt(idx + 1) : 0;
+
+            if (inLineComment)
+            {
+                if (c == '\n' || c == '\r')
+                {
+                    inLineComment = false;
+                    sb.append(c);
+                }
+            }
+            else if (inBlockComment)
+            {
+                if (c == '*' && next == '/')
+                {
+                    inBlockComment = false;
+                    idx++;
+                }
+                else if (c == '\n' || c == '\r')
+                {
+                    sb.append(c);
+                }
+            }
+            else if (stringDelimiter != 0)
+            {
+                sb.append(c);
+                if (c == '\\' && next != 0)
+                {
+                    sb.append(next);
+                    idx++;
+                }
+                else if (c == stringDelimiter)
+                {
+                    stringDelimiter = 0;
+                }
+            }
+            else if (c == '/' && next == '/')
+            {
+                inLineComment = true;
+                idx++;
+            }
+            else if (c == '/' && next == '*')
+            {
+                inBlockComment = true;
+                idx++;
+            }
+            else
+            {
+                if (c == '"' || c == '\'')
+                {
+                    stringDelimiter = c;
+                }
+                sb.append(c);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    protected String readConfig(final File configFile)
+    {
+        final String config;
+
+        FileInputStream fin = null;
+        InputStreamReader isr = null;
+        try
+        {
+            fin = new FileInputStream(configFile);
+            isr = new InputStreamReader(fin, StandardCharsets.UTF_8);
+            config = stripComments(IOUtil.toString(isr));
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error reading JSHint config file " + configFile, ioex));
+        }
+        finally
+        {
+            IOUtil.close(isr);
+            IOUtil.close(fin);
+        }
+
+        return config;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+/**
+ * Instances of this interface represent an in-progress event of the JSHint pipeline that is emitted to the JDK Flight Recorder when
+ * {@link #commit() committed}. Instances are only ever obtained via {@link JSHintEvents#begin(JSHintEvents.Type)} while the event type is
+ * being recorded.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public interface JSHintEvent
+{
+
+    /**
+     * @param path
+     *            the path of the script file(s) / report file the event relates to
+     */
+    void setPath(String path);
+
+    /**
+     * @param size
+     *            the size in bytes of the script file(s) the event relates to
+     */
+    void setSize(long size);
+
+    /**
+     * @param engine
+     *            the name of the script engine the event relates to
+     */
+    void setEngine(String engine);
+
+    /**
+     * @param errorCount
+     *            the number of JSHint errors the event relates to
+     */
+    void setErrorCount(int errorCount);
+
+    /**
+     * Ends and emits this event.
+     */
+    void commit();
+}
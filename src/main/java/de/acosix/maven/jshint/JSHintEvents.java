@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+/**
+ * This class provides access to JDK Flight Recorder events for the JSHint pipeline. The events themselves require the {@code jdk.jfr} API
+ * and are only available if the plugin was built and is run on a JDK providing it. In any other case, and whenever an event type is not
+ * being recorded, {@link #begin(Type) begin} returns {@code null} without allocating an event, so that callers only need to check for
+ * {@code null} before setting any event data.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public final class JSHintEvents
+{
+
+    /**
+     * The types of events emitted by the JSHint pipeline.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static enum Type
+    {
+        ENGINE_INITIALISATION, CONFIG_RESOLUTION, SOURCE_READ, LINT, REPORT;
+    }
+
+    /**
+     * Instances of this interface create events for a specific event recording facility.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static interface Factory
+    {
+
+        /**
+         * Creates and begins a new event if the event type is currently being recorded.
+         *
+         * @param type
+         *            the type of event to begin
+         * @return the begun event or {@code null} if the event type is not being recorded
+         */
+        JSHintEvent begin(Type type);
+    }
+
+    private static final String JFR_FACTORY_CLASS_NAME = "de.acosix.maven.jshint.jfr.JFRJSHintEventFactory";
+
+    private static final Factory FACTORY;
+    static
+    {
+        Factory factory = null;
+        try
+        {
+            Class.forName("jdk.jfr.Event");
+            factory = loadFactory(JFR_FACTORY_CLASS_NAME);
+        }
+        catch (final Exception | LinkageError ex)
+        {
+            // ignore - JFR not supported by runtime
+        }
+        FACTORY = factory;
+    }
+
+    private JSHintEvents()
+    {
+        // no instances
+    }
+
+    /**
+     * Loads and instantiates an event factory implementation.
+     *
+     * @param className
+     *            the name of the factory implementation class
+     * @return the factory instance or {@code null} if the class is not available in the build or runtime, or cannot be instantiated as
+     *         a factory
+     */
+    public static Factory loadFactory(final String className)
+    {
+        Factory factory = null;
+        try
+        {
+            final Class<? extends Factory> factoryClass = Class.forName(className).asSubclass(Factory.class);
+            factory = factoryClass.getDeclaredConstructor().newInstance();
+        }
+        catch (final Exception | LinkageError ex)
+        {
+            // ignore - factory not supported by build or runtime
+        }
+        return factory;
+    }
+
+    /**
+     * @return {@code true} if events can be emitted to the JDK Flight Recorder in the current runtime
+     */
+    public static boolean isAvailable()
+    {
+        return FACTORY != null;
+    }
+
+    /**
+     * Begins a new event if the event type is currently being recorded.
+     *
+     * @param type
+     *            the type of event to begin
+     * @return the begun event or {@code null} if the event type is not being recorded
+     */
+    public static JSHintEvent begin(final Type type)
+    {
+        return FACTORY != null ? FACTORY.begin(type) : null;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+/**
+ * Instances of this class measure the time JSHint takes to validate each individual script file of a batch. The runner scripts call
+ * {@link #startFile()} and {@link #endFile()} around the validation of each script file, so the timestamps never have to be represented as
+ * script numbers.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintLintTimer
+{
+
+    protected final long[] fileNanos;
+
+    protected int fileCount;
+
+    protected long fileStartNanos;
+
+    public JSHintLintTimer(final int maxFiles)
+    {
+        this.fileNanos = new long[maxFiles];
+    }
+
+    /**
+     * Marks the start of the validation of the next script file.
+     */
+    public void startFile()
+    {
+        this.fileStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of the validation of the current script file.
+     */
+    public void endFile()
+    {
+        this.fileNanos[this.fileCount++] = System.nanoTime() - this.fileStartNanos;
+    }
+
+    /**
+     * @return the number of script files for which the validation has been measured
+     */
+    public int getFileCount()
+    {
+        return this.fileCount;
+    }
+
+    /**
+     * Retrieves the measured duration of the validation of a script file.
+     *
+     * @param index
+     *            the index of the script file within the batch
+     * @return the duration in nanoseconds
+     */
+    public long getFileNanos(final int index)
+    {
+        if (index < 0 || index >= this.fileCount)
+        {
+            throw new IndexOutOfBoundsException("No duration measured for script file " + index);
+        }
+        return this.fileNanos[index];
+    }
+}
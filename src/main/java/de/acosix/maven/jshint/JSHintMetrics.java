@@ -0,0 +1,350 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Instances of this class collect timings of the individual phases of a JSHint execution as well as per-file validation timings. Phase
+ * timings are accumulated across all threads involved, so with parallel validation and scanning in a background thread their sum may
+ * exceed the total (wall-clock) duration of the execution. Only the slowest files are retained so that memory usage is independent of the
+ * number of script files validated.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintMetrics
+{
+
+    /**
+     * The phases of a JSHint execution for which timings are collected.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static enum Phase
+    {
+        /** Walking the source directory and matching include / exclude patterns, excluding .jshintignore loading */
+        SCAN("scan"),
+        /** Loading .jshintignore files found during the scan */
+        JSHINT_IGNORE("jshintIgnore"),
+        /** Resolving the effective JSHint configuration for script files */
+        CONFIG_LOOKUP("configLookup"),
+        /** Initialising JSHint engines */
+        ENGINE_INITIALISATION("engineInitialisation"),
+        /** Reading script files (or waiting for them to be read ahead) */
+        SOURCE_READ("sourceRead"),
+        /** Running JSHint on script files */
+        LINT("lint"),
+        /** Writing reports */
+        REPORT("report");
+
+        private final String key;
+
+        private Phase(final String key)
+        {
+            this.key = key;
+        }
+
+        /**
+         * @return the key of the phase as used in the metrics file
+         */
+        public String getKey()
+        {
+            return this.key;
+        }
+    }
+
+    /**
+     * Instances of this class hold the validation timing of a single script file.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static class FileTiming implements Comparable<FileTiming>
+    {
+
+        protected final String path;
+
+        protected final long bytes;
+
+        protected final long nanos;
+
+        protected FileTiming(final String path, final long bytes, final long nanos)
+        {
+            this.path = path;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the path
+         */
+        public String getPath()
+        {
+            return this.path;
+        }
+
+        /**
+         * @return the bytes
+         */
+        public long getBytes()
+        {
+            return this.bytes;
+        }
+
+        /**
+         * @return the nanos
+         */
+        public long getNanos()
+        {
+            return this.nanos;
+        }
+
+        /**
+         *
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(final FileTiming other)
+        {
+            return this.nanos < other.nanos ? -1 : (this.nanos == other.nanos ? 0 : 1);
+        }
+    }
+
+    protected final int slowestFilesCount;
+
+    protected final long startNanos = System.nanoTime();
+
+    protected final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+
+    protected final AtomicLongArray phaseCounts = new AtomicLongArray(Phase.values().length);
+
+    protected final AtomicLong filesLinted = new AtomicLong();
+
+    protected final AtomicLong bytesLinted = new AtomicLong();
+
+    protected final AtomicLong fileLintNanos = new AtomicLong();
+
+    // min-heap so the fastest of the retained files can be evicted cheaply
+    protected final PriorityQueue<FileTiming> slowestFiles;
+
+    protected long totalNanos = -1;
+
+    public JSHintMetrics(final int slowestFilesCount)
+    {
+        this.slowestFilesCount = Math.max(0, slowestFilesCount);
+        this.slowestFiles = new PriorityQueue<>(Math.max(1, this.slowestFilesCount));
+    }
+
+    /**
+     * Records the duration of a phase that started at a specific point in time and ends now.
+     *
+     * @param phase
+     *            the phase
+     * @param phaseStartNanos
+     *            the start of the phase as obtained from {@link System#nanoTime()}
+     * @return the duration of the phase in nanoseconds
+     */
+    public long recordPhase(final Phase phase, final long phaseStartNanos)
+    {
+        final long nanos = System.nanoTime() - phaseStartNanos;
+        this.addPhaseNanos(phase, nanos);
+        return nanos;
+    }
+
+    /**
+     * Adds to the accumulated duration of a phase.
+     *
+     * @param phase
+     *            the phase
+     * @param nanos
+     *            the duration to add in nanoseconds
+     */
+    public void addPhaseNanos(final Phase phase, final long nanos)
+    {
+        this.phaseNanos.addAndGet(phase.ordinal(), nanos);
+        this.phaseCounts.incrementAndGet(phase.ordinal());
+    }
+
+    /**
+     * Records the time JSHint took to validate a single script file. This does not record the {@link Phase#LINT lint phase} itself.
+     *
+     * @param path
+     *            the path of the script file
+     * @param bytes
+     *            the size of the script file in bytes
+     * @param nanos
+     *            the duration of the validation in nanoseconds
+     */
+    public void recordFile(final String path, final long bytes, final long nanos)
+    {
+        this.filesLinted.incrementAndGet();
+        this.bytesLinted.addAndGet(bytes);
+        this.fileLintNanos.addAndGet(nanos);
+
+        if (this.slowestFilesCount > 0)
+        {
+            synchronized (this.slowestFiles)
+            {
+                if (this.slowestFiles.size() < this.slowestFilesCount)
+                {
+                    this.slowestFiles.add(new FileTiming(path, bytes, nanos));
+                }
+                else if (this.slowestFiles.peek().nanos < nanos)
+                {
+                    this.slowestFiles.poll();
+                    this.slowestFiles.add(new FileTiming(path, bytes, nanos));
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the end of the execution for which metrics are collected.
+     */
+    public void complete()
+    {
+        this.totalNanos = System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * @return the slowest files in descending order of their validation time
+     */
+    public List<FileTiming> getSlowestFiles()
+    {
+        final List<FileTiming> slowestFiles;
+        synchronized (this.slowestFiles)
+        {
+            slowestFiles = new ArrayList<>(this.slowestFiles);
+        }
+        Collections.sort(slowestFiles, Collections.reverseOrder());
+        return slowestFiles;
+    }
+
+    /**
+     * Writes a summary of the collected metrics to a log.
+     *
+     * @param log
+     *            the log to write to
+     */
+    public void logSummary(final Log log)
+    {
+        log.info(MessageFormat.format("JSHint metrics - total: {0} ms, files: {1}, bytes: {2}, throughput: {3} bytes/s",
+                String.valueOf(toMillis(this.getTotalNanos())), String.valueOf(this.filesLinted.get()),
+                String.valueOf(this.bytesLinted.get()), String.valueOf(this.getBytesPerSecond())));
+        for (final Phase phase : Phase.values())
+        {
+            log.info(MessageFormat.format("JSHint metrics - phase {0}: {1} ms ({2} times)", phase.getKey(),
+                    String.valueOf(toMillis(this.phaseNanos.get(phase.ordinal()))), String.valueOf(this.phaseCounts.get(phase.ordinal()))));
+        }
+        for (final FileTiming fileTiming : this.getSlowestFiles())
+        {
+            log.info(MessageFormat.format("JSHint metrics - slow file {0}: {1} ms ({2} bytes)", fileTiming.path,
+                    String.valueOf(toMillis(fileTiming.nanos)), String.valueOf(fileTiming.bytes)));
+        }
+    }
+
+    /**
+     * Writes the collected metrics as JSON to a file.
+     *
+     * @param metricsFile
+     *            the file to write to
+     */
+    public void writeMetricsFile(final File metricsFile)
+    {
+        final File parentDirectory = metricsFile.getParentFile();
+        if (parentDirectory != null && !parentDirectory.exists())
+        {
+            parentDirectory.mkdirs();
+        }
+
+        final StringBuilder json = new StringBuilder(1024);
+        json.append("{\n  \"totalMillis\": ").append(toMillis(this.getTotalNanos()));
+        json.append(",\n  \"filesLinted\": ").append(this.filesLinted.get());
+        json.append(",\n  \"bytesLinted\": ").append(this.bytesLinted.get());
+        json.append(",\n  \"bytesPerSecond\": ").append(this.getBytesPerSecond());
+        json.append(",\n  \"phases\": {");
+        for (final Phase phase : Phase.values())
+        {
+            json.append(phase.ordinal() > 0 ? ",\n    \"" : "\n    \"").append(phase.getKey()).append("\": {\"millis\": ")
+                    .append(toMillis(this.phaseNanos.get(phase.ordinal()))).append(", \"count\": ")
+                    .append(this.phaseCounts.get(phase.ordinal())).append('}');
+        }
+        json.append("\n  },\n  \"slowestFiles\": [");
+        boolean first = true;
+        for (final FileTiming fileTiming : this.getSlowestFiles())
+        {
+            json.append(first ? "\n    {\"path\": " : ",\n    {\"path\": ");
+            NDJSONJSHintReporter.appendString(json, fileTiming.path);
+            json.append(", \"bytes\": ").append(fileTiming.bytes).append(", \"micros\": ")
+                    .append(TimeUnit.NANOSECONDS.toMicros(fileTiming.nanos)).append('}');
+            first = false;
+        }
+        json.append(first ? "]\n}\n" : "\n  ]\n}\n");
+
+        OutputStream os = null;
+        Writer writer = null;
+        try
+        {
+            os = new BufferedOutputStream(new FileOutputStream(metricsFile, false));
+            writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+            writer.append(json);
+            writer.flush();
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error writing JSHint metrics file " + metricsFile, ioex));
+        }
+        finally
+        {
+            IOUtil.close(writer);
+            IOUtil.close(os);
+        }
+    }
+
+    protected long getTotalNanos()
+    {
+        return this.totalNanos >= 0 ? this.totalNanos : System.nanoTime() - this.startNanos;
+    }
+
+    protected long getBytesPerSecond()
+    {
+        final long nanos = this.fileLintNanos.get();
+        return nanos > 0 ? (long) (this.bytesLinted.get() * (double) TimeUnit.SECONDS.toNanos(1) / nanos) : 0;
+    }
+
+    protected static long toMillis(final long nanos)
+    {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -15,7 +15,7 @@
  */
 package de.acosix.maven.jshint;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -26,12 +26,21 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
@@ -39,20 +48,24 @@ import javax.script.ScriptEngineManager;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
+import de.acosix.maven.jshint.JSHintMetrics.Phase;
+import de.acosix.maven.jshint.JSHinterPool.JSHinterFactory;
+import de.acosix.maven.jshint.JSHinterPool.PooledJSHinter;
+
 /**
  * This Mojo provides a goal to run a JSHint validation of JavaScript sources files in the current project during the "processSources"
  * phase.
  *
  * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
  */
-@Mojo(name = "jshint", defaultPhase = LifecyclePhase.PROCESS_SOURCES)
+@Mojo(name = "jshint", defaultPhase = LifecyclePhase.PROCESS_SOURCES, threadSafe = true)
 public class JSHintMojo extends AbstractMojo
 {
 
@@ -73,6 +86,142 @@ public class JSHintMojo extends AbstractMojo
         NASHORN_AVAILABLE = nashornAvailable;
     }
 
+    /**
+     * Instances of this class hold the result of validating a batch of script files in parallel mode.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    protected static class ScriptFileBatchResult
+    {
+
+        protected final List<String> batch;
+
+        protected final List<List<Error>> errors;
+
+        protected final BufferedLog log;
+
+        protected ScriptFileBatchResult(final List<String> batch, final List<List<Error>> errors, final BufferedLog log)
+        {
+            this.batch = batch;
+            this.errors = errors;
+            this.log = log;
+        }
+    }
+
+    /**
+     * Instances of this class represent a report file that is streamed while script files are being validated. Unless it needs to be
+     * consumable during validation, the report is streamed to a temporary file that is only moved into place once the report has been
+     * completed.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    protected static class StreamedReportFile
+    {
+
+        protected final File reportFile;
+
+        // null if streamed in place
+        protected final File tempFile;
+
+        protected final OutputStream outputStream;
+
+        protected StreamedReportFile(final File reportFile, final File tempFile, final OutputStream outputStream)
+        {
+            this.reportFile = reportFile;
+            this.tempFile = tempFile;
+            this.outputStream = outputStream;
+        }
+    }
+
+    /**
+     * Instances of this class collect the errors of validated script files, either retaining them for reports to be written after all
+     * script files have been validated or handing them off to streaming reporters as soon as each script file has been validated.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    protected static class ScriptFileErrorCollector
+    {
+
+        protected final Map<String, List<Error>> errorsByFile;
+
+        protected final List<StreamingJSHintReporter> streamingReporters = new ArrayList<>();
+
+        protected final JSHintMetrics metrics;
+
+        protected int filesWithErrors;
+
+        protected ScriptFileErrorCollector(final boolean retainErrors, final JSHintMetrics metrics)
+        {
+            this.errorsByFile = retainErrors ? new HashMap<String, List<Error>>() : null;
+            this.metrics = metrics;
+        }
+
+        protected void addStreamingReporter(final StreamingJSHintReporter reporter)
+        {
+            this.streamingReporters.add(reporter);
+        }
+
+        protected void collect(final String filePath, final List<Error> errors)
+        {
+            if (!errors.isEmpty())
+            {
+                this.filesWithErrors++;
+                if (this.errorsByFile != null)
+                {
+                    this.errorsByFile.put(filePath, errors);
+                }
+            }
+
+            if (!this.streamingReporters.isEmpty())
+            {
+                final JSHintEvent event = JSHintEvents.begin(JSHintEvents.Type.REPORT);
+                final long startNanos = System.nanoTime();
+                for (final StreamingJSHintReporter reporter : this.streamingReporters)
+                {
+                    reporter.reportFile(filePath, errors);
+                }
+                this.recordReport(startNanos);
+                if (event != null)
+                {
+                    event.setPath(filePath);
+                    event.setErrorCount(errors.size());
+                    event.commit();
+                }
+            }
+        }
+
+        protected void endReports()
+        {
+            if (!this.streamingReporters.isEmpty())
+            {
+                final long startNanos = System.nanoTime();
+                for (final StreamingJSHintReporter reporter : this.streamingReporters)
+                {
+                    reporter.endReport();
+                }
+                this.recordReport(startNanos);
+            }
+        }
+
+        protected void recordReport(final long startNanos)
+        {
+            if (this.metrics != null)
+            {
+                this.metrics.recordPhase(Phase.REPORT, startNanos);
+            }
+        }
+
+        protected Map<String, List<Error>> getErrorsByFile()
+        {
+            return this.errorsByFile;
+        }
+
+        protected int getFilesWithErrors()
+        {
+            return this.filesWithErrors;
+        }
+    }
+
     /**
      * The base directory of the current project
      */
@@ -136,6 +285,13 @@ public class JSHintMojo extends AbstractMojo
     @Parameter(property = "ignoreJSHintConfigFiles", required = false)
     protected boolean ignoreJSHintConfigFiles = false;
 
+    /**
+     * Flag to specify if well-known directories of third-party dependencies ({@code node_modules}, {@code bower_components} and
+     * {@code jspm_packages}) should be excluded by default
+     */
+    @Parameter(defaultValue = "true", property = "useDefaultExcludes", required = false)
+    protected boolean useDefaultExcludes = true;
+
     /**
      * The version of the embedded JSHint script to use. This setting is ignored if {@link #jshintScript} is set.
      */
@@ -156,12 +312,170 @@ public class JSHintMojo extends AbstractMojo
     @Parameter(property = "checkstyleReportFile", required = false)
     protected String checkstyleReportFile;
 
+    /**
+     * Flag to specify that reports should be written incrementally while script files are being validated, writing and flushing the
+     * findings for each script file as soon as its validation has finished instead of retaining all findings in memory until the end. In
+     * this mode, report files are written even if no JSHint errors / warnings have been found. Reports are streamed to a temporary file
+     * that only replaces the report file once all script files have been validated, so a failed validation never leaves an incomplete
+     * report behind.
+     */
+    @Parameter(property = "streamReports", required = false)
+    protected boolean streamReports = false;
+
+    /**
+     * The path / name of the newline-delimited JSON report file to write with one line per validated script file. This report is always
+     * written incrementally, flushing each line as soon as the validation of the script file has finished, so that it can be consumed while
+     * the build is still running. The report file is deleted if the validation fails before all script files have been validated. This
+     * path is relative to the project's build directory.
+     */
+    @Parameter(property = "ndjsonReportFile", required = false)
+    protected String ndjsonReportFile;
+
+    /**
+     * Flag to specify that the evidence (source line) of each finding should be retained and included in reports that support it, i.e. the
+     * {@link #ndjsonReportFile NDJSON report}. Evidence is dropped by default as it holds a copy of a source line for every single finding.
+     */
+    @Parameter(property = "retainEvidence", required = false)
+    protected boolean retainEvidence = false;
+
+    /**
+     * Flag to specify that timings of the individual phases of the execution (scan, loading of {@code .jshintignore} files, config lookup,
+     * engine initialisation, reading of script files, validation and report writing) as well as per-file validation timings should be
+     * collected, logged as a summary and written to the {@link #metricsFile metrics file}
+     */
+    @Parameter(property = "collectMetrics", required = false)
+    protected boolean collectMetrics = false;
+
+    /**
+     * The path / name of the JSON file to write collected metrics to when {@link #collectMetrics} is enabled. This path is relative to the
+     * project's build directory.
+     */
+    @Parameter(defaultValue = "jshint-metrics.json", property = "metricsFile", required = true)
+    protected String metricsFile = "jshint-metrics.json";
+
+    /**
+     * The number of slowest script files to include in collected metrics
+     */
+    @Parameter(defaultValue = "10", property = "slowestFilesCount", required = true)
+    protected int slowestFilesCount = 10;
+
     /**
      * Flag to specify execution of this mojo should be skipped
      */
     @Parameter(property = "skip", required = false)
     protected boolean skip;
 
+    /**
+     * Flag to specify that script files should be validated concurrently using a pool of independent JSHint engines
+     */
+    @Parameter(property = "parallel", required = false)
+    protected boolean parallel = false;
+
+    /**
+     * The number of JSHint engines / threads to use when {@link #parallel} is enabled - defaults to the number of available processors if
+     * not set or set to a value less than {@code 1}
+     */
+    @Parameter(property = "threadCount", required = false)
+    protected int threadCount = 0;
+
+    /**
+     * The number of script files to validate within a single invocation of the JSHint engine - larger batches reduce the overhead of
+     * transitions between Java and JavaScript when validating many small files
+     */
+    @Parameter(defaultValue = "1", property = "batchSize", required = true)
+    protected int batchSize = 1;
+
+    /**
+     * The maximum number of JSHint engines that may be in use at the same time across all modules of a build, e.g. when building with
+     * Maven's parallel builder - defaults to the number of available processors if not set or set to a value less than {@code 1}. The cap
+     * is shared by all executions of this plugin in a build that use the same value, while executions using different values are limited
+     * independently. At most this number of idle engines is kept warm for reuse by later executions.
+     */
+    @Parameter(property = "maxConcurrentEngines", required = false)
+    protected int maxConcurrentEngines = 0;
+
+    /**
+     * The maximum number of discovered script files to hold pending validation - the scan of the source directory is paused while this
+     * limit is reached
+     */
+    @Parameter(defaultValue = "1000", property = "scanQueueCapacity", required = true)
+    protected int scanQueueCapacity = 1000;
+
+    /**
+     * The number of script files to read ahead of their validation on separate I/O threads so that JSHint engines do not have to wait for
+     * file system access - defaults to {@code 0}, reading script files synchronously on the validating thread. Like the other performance
+     * switches, read-ahead is opt-in as it starts additional threads and holds the content of pending script files in memory, while reads
+     * from local disks are typically served from the operating system's file cache and leave the engine idle only briefly. On network or
+     * otherwise slow file systems a value of {@code 16}, or twice the {@link #batchSize} if larger, is recommended. When {@link #parallel}
+     * is enabled, any value above {@code 0} reads ahead all script files queued for validation by the worker threads.
+     */
+    @Parameter(defaultValue = "0", property = "readAheadFiles", required = true)
+    protected int readAheadFiles = 0;
+
+    /**
+     * The number of I/O threads to use for reading script files ahead of their validation
+     */
+    @Parameter(defaultValue = "2", property = "readAheadThreads", required = true)
+    protected int readAheadThreads = 2;
+
+    /**
+     * Flag to specify that results of previous JSHint validations should be persisted and reused for script files for which neither the
+     * content, the effective JSHint configuration nor the JSHint script have changed
+     */
+    @Parameter(property = "useResultCache", required = false)
+    protected boolean useResultCache = false;
+
+    /**
+     * The path / name of the file in which to persist results of JSHint validations when {@link #useResultCache} is enabled. This path is
+     * relative to the project's build directory.
+     */
+    @Parameter(defaultValue = "jshint-result-cache.ser", property = "resultCacheFile", required = true)
+    protected String resultCacheFile;
+
+    /**
+     * Flag to specify that Rhino should be initialised from a serialized snapshot of the loaded JSHint script instead of evaluating the
+     * script each time an engine is created. Snapshots require Rhino to run in interpreted mode, so this trades JSHint execution speed for
+     * startup time and is primarily useful for small modules. This setting is ignored when Nashorn is used.
+     */
+    @Parameter(property = "useRhinoSnapshot", required = false)
+    protected boolean useRhinoSnapshot = false;
+
+    /**
+     * The directory in which to store serialized snapshots of the loaded JSHint script for Rhino when {@link #useRhinoSnapshot} is enabled
+     */
+    @Parameter(defaultValue = "${user.home}/.jshint-maven-plugin/snapshots", property = "rhinoSnapshotDirectory", required = true)
+    protected File rhinoSnapshotDirectory;
+
+    /**
+     * Flag to specify that Nashorn should use its persistent code cache so that the compiled form of the JSHint script is reused across
+     * builds instead of being recompiled each time. This setting is ignored when Rhino is used.
+     */
+    @Parameter(property = "nashornPersistentCodeCache", required = false)
+    protected boolean nashornPersistentCodeCache = false;
+
+    /**
+     * The directory in which Nashorn should store compiled scripts when {@link #nashornPersistentCodeCache} is enabled. Nashorn only reads
+     * this directory from the JVM-wide system property {@code nashorn.persistent.code.cache}, which must be set when starting Maven, e.g.
+     * via {@code MAVEN_OPTS}, and is never changed by this plugin. The persistent code cache is not used if that system property has not
+     * been set, and the build fails if this parameter specifies a different directory.
+     */
+    @Parameter(property = "nashorn.persistent.code.cache", required = false)
+    protected File nashornCodeCacheDirectory;
+
+    /**
+     * Flag to enable / disable optimistic types in Nashorn - uses the default of the Nashorn version in use if not set. This setting is
+     * ignored when Rhino is used.
+     */
+    @Parameter(property = "nashornOptimisticTypes", required = false)
+    protected Boolean nashornOptimisticTypes;
+
+    /**
+     * Flag to enable / disable lazy compilation in Nashorn - uses the default of the Nashorn version in use if not set. This setting is
+     * ignored when Rhino is used.
+     */
+    @Parameter(property = "nashornLazyCompilation", required = false)
+    protected Boolean nashornLazyCompilation;
+
     // setters primarily to facilitate testing
 
     /**
@@ -263,6 +577,15 @@ public class JSHintMojo extends AbstractMojo
         this.ignoreJSHintConfigFiles = ignoreJSHintConfigFiles;
     }
 
+    /**
+     * @param useDefaultExcludes
+     *            the useDefaultExcludes to set
+     */
+    public void setUseDefaultExcludes(final boolean useDefaultExcludes)
+    {
+        this.useDefaultExcludes = useDefaultExcludes;
+    }
+
     /**
      * @param jshintVersion
      *            the jshintVersion to set
@@ -290,6 +613,60 @@ public class JSHintMojo extends AbstractMojo
         this.checkstyleReportFile = checkstyleReportFile;
     }
 
+    /**
+     * @param streamReports
+     *            the streamReports to set
+     */
+    public void setStreamReports(final boolean streamReports)
+    {
+        this.streamReports = streamReports;
+    }
+
+    /**
+     * @param ndjsonReportFile
+     *            the ndjsonReportFile to set
+     */
+    public void setNdjsonReportFile(final String ndjsonReportFile)
+    {
+        this.ndjsonReportFile = ndjsonReportFile;
+    }
+
+    /**
+     * @param retainEvidence
+     *            the retainEvidence to set
+     */
+    public void setRetainEvidence(final boolean retainEvidence)
+    {
+        this.retainEvidence = retainEvidence;
+    }
+
+    /**
+     * @param collectMetrics
+     *            the collectMetrics to set
+     */
+    public void setCollectMetrics(final boolean collectMetrics)
+    {
+        this.collectMetrics = collectMetrics;
+    }
+
+    /**
+     * @param metricsFile
+     *            the metricsFile to set
+     */
+    public void setMetricsFile(final String metricsFile)
+    {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * @param slowestFilesCount
+     *            the slowestFilesCount to set
+     */
+    public void setSlowestFilesCount(final int slowestFilesCount)
+    {
+        this.slowestFilesCount = slowestFilesCount;
+    }
+
     /**
      * @param skip
      *            the skip to set
@@ -299,6 +676,141 @@ public class JSHintMojo extends AbstractMojo
         this.skip = skip;
     }
 
+    /**
+     * @param parallel
+     *            the parallel to set
+     */
+    public void setParallel(final boolean parallel)
+    {
+        this.parallel = parallel;
+    }
+
+    /**
+     * @param threadCount
+     *            the threadCount to set
+     */
+    public void setThreadCount(final int threadCount)
+    {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * @param batchSize
+     *            the batchSize to set
+     */
+    public void setBatchSize(final int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param maxConcurrentEngines
+     *            the maxConcurrentEngines to set
+     */
+    public void setMaxConcurrentEngines(final int maxConcurrentEngines)
+    {
+        this.maxConcurrentEngines = maxConcurrentEngines;
+    }
+
+    /**
+     * @param scanQueueCapacity
+     *            the scanQueueCapacity to set
+     */
+    public void setScanQueueCapacity(final int scanQueueCapacity)
+    {
+        this.scanQueueCapacity = scanQueueCapacity;
+    }
+
+    /**
+     * @param readAheadFiles
+     *            the readAheadFiles to set
+     */
+    public void setReadAheadFiles(final int readAheadFiles)
+    {
+        this.readAheadFiles = readAheadFiles;
+    }
+
+    /**
+     * @param readAheadThreads
+     *            the readAheadThreads to set
+     */
+    public void setReadAheadThreads(final int readAheadThreads)
+    {
+        this.readAheadThreads = readAheadThreads;
+    }
+
+    /**
+     * @param useResultCache
+     *            the useResultCache to set
+     */
+    public void setUseResultCache(final boolean useResultCache)
+    {
+        this.useResultCache = useResultCache;
+    }
+
+    /**
+     * @param resultCacheFile
+     *            the resultCacheFile to set
+     */
+    public void setResultCacheFile(final String resultCacheFile)
+    {
+        this.resultCacheFile = resultCacheFile;
+    }
+
+    /**
+     * @param useRhinoSnapshot
+     *            the useRhinoSnapshot to set
+     */
+    public void setUseRhinoSnapshot(final boolean useRhinoSnapshot)
+    {
+        this.useRhinoSnapshot = useRhinoSnapshot;
+    }
+
+    /**
+     * @param rhinoSnapshotDirectory
+     *            the rhinoSnapshotDirectory to set
+     */
+    public void setRhinoSnapshotDirectory(final File rhinoSnapshotDirectory)
+    {
+        this.rhinoSnapshotDirectory = rhinoSnapshotDirectory;
+    }
+
+    /**
+     * @param nashornPersistentCodeCache
+     *            the nashornPersistentCodeCache to set
+     */
+    public void setNashornPersistentCodeCache(final boolean nashornPersistentCodeCache)
+    {
+        this.nashornPersistentCodeCache = nashornPersistentCodeCache;
+    }
+
+    /**
+     * @param nashornCodeCacheDirectory
+     *            the nashornCodeCacheDirectory to set
+     */
+    public void setNashornCodeCacheDirectory(final File nashornCodeCacheDirectory)
+    {
+        this.nashornCodeCacheDirectory = nashornCodeCacheDirectory;
+    }
+
+    /**
+     * @param nashornOptimisticTypes
+     *            the nashornOptimisticTypes to set
+     */
+    public void setNashornOptimisticTypes(final Boolean nashornOptimisticTypes)
+    {
+        this.nashornOptimisticTypes = nashornOptimisticTypes;
+    }
+
+    /**
+     * @param nashornLazyCompilation
+     *            the nashornLazyCompilation to set
+     */
+    public void setNashornLazyCompilation(final Boolean nashornLazyCompilation)
+    {
+        this.nashornLazyCompilation = nashornLazyCompilation;
+    }
+
     /**
      *
      * {@inheritDoc}
@@ -314,65 +826,111 @@ public class JSHintMojo extends AbstractMojo
 
         try
         {
-            final List<String> scriptFilesToProcess = this.lookupJavaScriptFilesToInclude();
-
-            final JSHinter hinter;
+            this.checkNashornCodeCacheDirectory();
 
-            if (this.jshintScript != null)
+            final JSHintMetrics metrics = this.collectMetrics ? new JSHintMetrics(this.slowestFilesCount) : null;
+            final String defaultJSHintConfigContent = this.loadDefaultJSHintConfig();
+            final JSHintResultCache resultCache = this.useResultCache ? this.loadResultCache() : null;
+            final JSHintConfigIndex configIndex = JSHintConfigIndex.createIncremental(this.getLog(), this.sourceDirectory);
+
+            // scan logs in background thread - buffer to avoid interleaving with validation output
+            final BufferedLog scanLog = new BufferedLog(this.getLog());
+            final JSHintSourceScanner scanner = new JSHintSourceScanner(scanLog, this.sourceDirectory, this.includes, this.excludes,
+                    this.ignoreJSHintIgnoreFiles);
+            scanner.setUseDefaultExcludes(this.useDefaultExcludes);
+            scanner.setMetrics(metrics);
+            final JSHintSourceQueue sourceQueue = new JSHintSourceQueue(scanner, this.ignoreJSHintConfigFiles ? null : configIndex,
+                    Math.max(1, this.scanQueueCapacity));
+
+            final JSHintSourcePrefetcher sourcePrefetcher = this.readAheadFiles > 0
+                    ? new JSHintSourcePrefetcher(this.sourceDirectory, Math.max(1, this.readAheadThreads)) : null;
+
+            // findings of all script files share their textual values, e.g. codes and reasons
+            final JSHintValuePool valuePool = new JSHintValuePool();
+
+            final ScriptFileErrorCollector errorCollector = new ScriptFileErrorCollector(!this.streamReports, metrics);
+            final List<StreamedReportFile> streamedReportFiles = new ArrayList<>();
+            boolean streamedReportsCompleted = false;
+            try
             {
-                final File scriptFile = new File(this.baseDirectory, this.jshintScript);
-                if (scriptFile.isFile() && scriptFile.exists())
+                this.startStreamingReports(errorCollector, streamedReportFiles);
+
+                sourceQueue.start();
+                try
                 {
-                    hinter = (this.preferRhino || !NASHORN_AVAILABLE) ? new RhinoJSHinter(this.getLog(), scriptFile)
-                            : new NashornJSHinter(this.getLog(), scriptFile);
-                }
-                else
+                    if (this.parallel)
+                    {
+                        this.executeJSHintParallel(sourceQueue, defaultJSHintConfigContent, resultCache, configIndex, sourcePrefetcher,
+                                valuePool, metrics, errorCollector);
+                    }
+                    else
+                    {
+                        this.executeJSHintSequential(sourceQueue, defaultJSHintConfigContent, resultCache, configIndex, sourcePrefetcher,
+                                valuePool, metrics, errorCollector);
+                    }
+                }
+                finally
                 {
-                    hinter = (this.preferRhino || !NASHORN_AVAILABLE) ? new RhinoJSHinter(this.getLog(), this.jshintScript, true)
-                            : new NashornJSHinter(this.getLog(), this.jshintScript, true);
+                    if (sourcePrefetcher != null)
+                    {
+                        sourcePrefetcher.shutdown();
+                    }
+                    sourceQueue.close();
+                    scanLog.flushTo(this.getLog());
                 }
+
+                errorCollector.endReports();
+                streamedReportsCompleted = true;
             }
-            else
+            finally
             {
-                hinter = (this.preferRhino || !NASHORN_AVAILABLE) ? new RhinoJSHinter(this.getLog(), this.jshintVersion, false)
-                        : new NashornJSHinter(this.getLog(), this.jshintVersion, false);
+                // incomplete reports must not be mistaken for the results of a complete validation
+                this.finishStreamingReports(streamedReportFiles, streamedReportsCompleted);
             }
 
-            final String defaultJSHintConfigContent = this.loadDefaultJSHintConfig();
-
-            int filesChecked = 0;
-            int filesWithErrors = 0;
-            final Map<String, List<Error>> errorsByFile = new HashMap<>();
-            for (final String scriptFile : scriptFilesToProcess)
+            if (resultCache != null)
             {
-                final List<Error> errors = hinter.executeJSHint(this.sourceDirectory, scriptFile, defaultJSHintConfigContent,
-                        this.ignoreJSHintConfigFiles);
-
-                if (!errors.isEmpty())
-                {
-                    filesWithErrors++;
-                    errorsByFile.put(scriptFile, errors);
-                }
-                filesChecked++;
+                resultCache.save();
             }
 
+            final int filesChecked = sourceQueue.getScriptFilesTaken();
+            final int filesWithErrors = errorCollector.getFilesWithErrors();
+
             this.getLog().info("JSHint validation complete");
 
-            if (filesWithErrors > 0)
+            try
             {
-                final String message = MessageFormat.format("JSHint errors found in {0} source files", String.valueOf(filesWithErrors));
-                this.getLog().error(message);
+                if (filesWithErrors > 0)
+                {
+                    final String message = MessageFormat.format("JSHint errors found in {0} source files", String.valueOf(filesWithErrors));
+                    this.getLog().error(message);
 
-                this.writeReports(errorsByFile);
+                    if (!this.streamReports)
+                    {
+                        final long reportStartNanos = System.nanoTime();
+                        this.writeReports(errorCollector.getErrorsByFile());
+                        if (metrics != null)
+                        {
+                            metrics.recordPhase(Phase.REPORT, reportStartNanos);
+                        }
+                    }
 
-                if (this.failOnError)
+                    if (this.failOnError)
+                    {
+                        throw new MojoFailureException(message);
+                    }
+                }
+                else
                 {
-                    throw new MojoFailureException(message);
+                    this.getLog().info(MessageFormat.format("No JSHint errors found in {0} source files", String.valueOf(filesChecked)));
                 }
             }
-            else
+            finally
             {
-                this.getLog().info(MessageFormat.format("No JSHint errors found in {0} source files", String.valueOf(filesChecked)));
+                if (metrics != null)
+                {
+                    this.reportMetrics(metrics);
+                }
             }
         }
         catch (final RuntimeException re)
@@ -385,43 +943,576 @@ public class JSHintMojo extends AbstractMojo
         }
     }
 
-    protected void writeReports(final Map<String, List<Error>> errorsByFile)
+    protected void executeJSHintSequential(final JSHintSourceQueue sourceQueue, final String defaultJSHintConfigContent,
+            final JSHintResultCache resultCache, final JSHintConfigIndex configIndex, final JSHintSourcePrefetcher sourcePrefetcher,
+            final JSHintValuePool valuePool, final JSHintMetrics metrics, final ScriptFileErrorCollector errorCollector)
+            throws MojoExecutionException
     {
-        if (StringUtils.isNotBlank(this.checkstyleReportFile))
+        final JSHinterPool pool = this.getSharedHinterPool();
+        final JSHinterFactory factory = this.createHinterFactory();
+        final int batchSize = Math.max(1, this.batchSize);
+        final int readAheadFiles = sourcePrefetcher != null ? this.readAheadFiles : 0;
+
+        try
+        {
+            final Deque<List<String>> pendingBatches = new ArrayDeque<>();
+            int filesInPendingBatches = 0;
+            boolean endOfScan = false;
+
+            while (!endOfScan || !pendingBatches.isEmpty())
+            {
+                // keep enough batches beyond the one to validate next to have the configured number of files read ahead
+                while (!endOfScan && (pendingBatches.isEmpty() || filesInPendingBatches - pendingBatches.peek().size() < readAheadFiles))
+                {
+                    final List<String> batch = sourceQueue.takeBatch(batchSize);
+                    if (batch.isEmpty())
+                    {
+                        endOfScan = true;
+                    }
+                    else
+                    {
+                        if (sourcePrefetcher != null)
+                        {
+                            sourcePrefetcher.prefetch(batch);
+                        }
+                        pendingBatches.add(batch);
+                        filesInPendingBatches += batch.size();
+                    }
+                }
+
+                final List<String> batch = pendingBatches.poll();
+                if (batch != null)
+                {
+                    filesInPendingBatches -= batch.size();
+
+                    final List<List<Error>> batchErrors = this.executeJSHint(pool, factory, batch, defaultJSHintConfigContent,
+                            resultCache, configIndex, sourcePrefetcher, valuePool, metrics, this.getLog());
+                    this.collectErrors(batch, batchErrors, errorCollector);
+                }
+            }
+        }
+        catch (final InterruptedException iex)
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for JSHint engine", iex);
+        }
+    }
+
+    protected void executeJSHintParallel(final JSHintSourceQueue sourceQueue, final String defaultJSHintConfigContent,
+            final JSHintResultCache resultCache, final JSHintConfigIndex configIndex, final JSHintSourcePrefetcher sourcePrefetcher,
+            final JSHintValuePool valuePool, final JSHintMetrics metrics, final ScriptFileErrorCollector errorCollector)
+            throws MojoExecutionException
+    {
+        final int threadCount = this.threadCount > 0 ? this.threadCount : Runtime.getRuntime().availableProcessors();
+        if (this.getLog().isDebugEnabled())
+        {
+            this.getLog().debug(MessageFormat.format("Running JSHint in parallel with {0} threads", String.valueOf(threadCount)));
+        }
+
+        final JSHinterPool pool = this.getSharedHinterPool();
+        final JSHinterFactory factory = this.createHinterFactory();
+        final int batchSize = Math.max(1, this.batchSize);
+        // limit batches in flight so that results / buffered logs of completed batches do not accumulate
+        final int maxBatchesInFlight = threadCount * 2;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try
+        {
+            final Deque<Future<ScriptFileBatchResult>> results = new ArrayDeque<>(maxBatchesInFlight);
+
+            List<String> nextBatch = sourceQueue.takeBatch(batchSize);
+            while (!nextBatch.isEmpty())
+            {
+                final List<String> batch = nextBatch;
+                if (sourcePrefetcher != null)
+                {
+                    sourcePrefetcher.prefetch(batch);
+                }
+                results.add(executor.submit(new Callable<ScriptFileBatchResult>()
+                {
+
+                    /**
+                     *
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public ScriptFileBatchResult call() throws Exception
+                    {
+                        final BufferedLog batchLog = new BufferedLog(JSHintMojo.this.getLog());
+                        final List<List<Error>> errors = JSHintMojo.this.executeJSHint(pool, factory, batch, defaultJSHintConfigContent,
+                                resultCache, configIndex, sourcePrefetcher, valuePool, metrics, batchLog);
+                        return new ScriptFileBatchResult(batch, errors, batchLog);
+                    }
+                }));
+
+                // collect in order of submission so log output is stable independent of actual scheduling
+                while (results.size() >= maxBatchesInFlight)
+                {
+                    this.collectResult(results.poll(), errorCollector);
+                }
+
+                nextBatch = sourceQueue.takeBatch(batchSize);
+            }
+
+            while (!results.isEmpty())
+            {
+                this.collectResult(results.poll(), errorCollector);
+            }
+        }
+        catch (final InterruptedException iex)
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for JSHint validation results", iex);
+        }
+        catch (final ExecutionException eex)
+        {
+            final Throwable cause = eex.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new MojoExecutionException("Error running JSHint validation", cause);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    protected void collectResult(final Future<ScriptFileBatchResult> future, final ScriptFileErrorCollector errorCollector)
+            throws InterruptedException, ExecutionException
+    {
+        final ScriptFileBatchResult result = future.get();
+        result.log.flushTo(this.getLog());
+        this.collectErrors(result.batch, result.errors, errorCollector);
+    }
+
+    protected void collectErrors(final List<String> batch, final List<List<Error>> batchErrors,
+            final ScriptFileErrorCollector errorCollector)
+    {
+        for (int idx = 0, max = batch.size(); idx < max; idx++)
+        {
+            errorCollector.collect(batch.get(idx), batchErrors.get(idx));
+        }
+    }
+
+    protected List<List<Error>> executeJSHint(final JSHinterPool pool, final JSHinterFactory factory, final List<String> batch,
+            final String defaultJSHintConfigContent, final JSHintResultCache resultCache, final JSHintConfigIndex configIndex,
+            final JSHintSourcePrefetcher sourcePrefetcher, final JSHintValuePool valuePool, final JSHintMetrics metrics,
+            final Log targetLog) throws InterruptedException
+    {
+        final PooledJSHinter pooledHinter = pool.acquire(this.getLog(), factory);
+        try
+        {
+            final JSHinter hinter = pooledHinter.getHinter();
+            hinter.setResultCache(resultCache);
+            hinter.setConfigIndex(configIndex);
+            hinter.setSourcePrefetcher(sourcePrefetcher);
+            hinter.setRetainEvidence(this.retainEvidence);
+            hinter.setValuePool(valuePool);
+            hinter.setMetrics(metrics);
+
+            final List<List<Error>> batchErrors;
+            if (batch.size() == 1)
+            {
+                final List<Error> errors = hinter.executeJSHint(this.sourceDirectory, batch.get(0), defaultJSHintConfigContent,
+                        this.ignoreJSHintConfigFiles);
+                batchErrors = Collections.singletonList(errors);
+            }
+            else
+            {
+                batchErrors = hinter.executeJSHint(this.sourceDirectory, batch, defaultJSHintConfigContent, this.ignoreJSHintConfigFiles);
+            }
+            return batchErrors;
+        }
+        finally
+        {
+            // don't retain execution specific state in pooled hinter
+            pooledHinter.getHinter().setResultCache(null);
+            pooledHinter.getHinter().setConfigIndex(null);
+            pooledHinter.getHinter().setSourcePrefetcher(null);
+            pooledHinter.getHinter().setRetainEvidence(false);
+            pooledHinter.getHinter().setValuePool(null);
+            pooledHinter.getHinter().setMetrics(null);
+            if (sourcePrefetcher != null)
+            {
+                // release any script file read ahead but not needed, e.g. due to a cached result
+                sourcePrefetcher.discard(batch);
+            }
+            pooledHinter.getLog().flushTo(targetLog);
+            pool.release(pooledHinter);
+        }
+    }
+
+    protected JSHinterPool getSharedHinterPool()
+    {
+        final int concurrencyLimit = this.maxConcurrentEngines > 0 ? this.maxConcurrentEngines
+                : Runtime.getRuntime().availableProcessors();
+        final JSHinterPool pool = JSHinterPool.getSharedPool(this.determineEngineKey(), concurrencyLimit, this.getLog());
+        return pool;
+    }
+
+    protected JSHinterFactory createHinterFactory()
+    {
+        return new JSHinterFactory()
+        {
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public JSHinter createHinter(final Log log)
+            {
+                return JSHintMojo.this.createHinter(log);
+            }
+        };
+    }
+
+    protected JSHinter createHinter(final Log log)
+    {
+        final JSHinter hinter;
+        if (this.useRhino())
+        {
+            final RhinoJSHinter rhinoHinter;
+            final File scriptFile = this.jshintScript != null ? new File(this.baseDirectory, this.jshintScript) : null;
+            if (scriptFile != null && scriptFile.isFile() && scriptFile.exists())
+            {
+                rhinoHinter = new RhinoJSHinter(log, scriptFile);
+            }
+            else if (this.jshintScript != null)
+            {
+                rhinoHinter = new RhinoJSHinter(log, this.jshintScript, true);
+            }
+            else
+            {
+                rhinoHinter = new RhinoJSHinter(log, this.jshintVersion, false);
+            }
+
+            if (this.useRhinoSnapshot)
+            {
+                rhinoHinter.setSnapshotDirectory(this.rhinoSnapshotDirectory);
+            }
+            hinter = rhinoHinter;
+        }
+        else
+        {
+            final NashornJSHinter nashornHinter;
+            final File scriptFile = this.jshintScript != null ? new File(this.baseDirectory, this.jshintScript) : null;
+            if (scriptFile != null && scriptFile.isFile() && scriptFile.exists())
+            {
+                nashornHinter = new NashornJSHinter(log, scriptFile);
+            }
+            else if (this.jshintScript != null)
+            {
+                nashornHinter = new NashornJSHinter(log, this.jshintScript, true);
+            }
+            else
+            {
+                nashornHinter = new NashornJSHinter(log, this.jshintVersion, false);
+            }
+
+            nashornHinter.setEngineOptions(this.determineNashornOptions());
+            nashornHinter.setPersistentCodeCache(this.useNashornPersistentCodeCache());
+            hinter = nashornHinter;
+        }
+        return hinter;
+    }
+
+    protected List<String> determineNashornOptions()
+    {
+        final List<String> options = new ArrayList<>();
+        if (this.nashornOptimisticTypes != null)
+        {
+            options.add("--optimistic-types=" + this.nashornOptimisticTypes);
+        }
+        if (this.nashornLazyCompilation != null)
+        {
+            options.add("--lazy-compilation=" + this.nashornLazyCompilation);
+        }
+        return options;
+    }
+
+    protected void checkNashornCodeCacheDirectory() throws MojoExecutionException
+    {
+        if (!this.useRhino() && this.nashornPersistentCodeCache)
+        {
+            final String codeCacheDirectory = System.getProperty(NashornJSHinter.PERSISTENT_CODE_CACHE_PROPERTY);
+            if (codeCacheDirectory == null)
+            {
+                this.getLog().warn(MessageFormat.format(
+                        "Not using the Nashorn persistent code cache as its directory has not been set via the system property {0} "
+                                + "(e.g. in MAVEN_OPTS)",
+                        NashornJSHinter.PERSISTENT_CODE_CACHE_PROPERTY));
+            }
+            else if (this.nashornCodeCacheDirectory != null
+                    && !this.nashornCodeCacheDirectory.getAbsoluteFile().equals(new File(codeCacheDirectory).getAbsoluteFile()))
+            {
+                throw new MojoExecutionException(MessageFormat.format(
+                        "Nashorn code cache directory {0} differs from {1} set via the system property {2}, "
+                                + "which cannot be changed at runtime",
+                        this.nashornCodeCacheDirectory, codeCacheDirectory, NashornJSHinter.PERSISTENT_CODE_CACHE_PROPERTY));
+            }
+        }
+    }
+
+    protected boolean useNashornPersistentCodeCache()
+    {
+        return this.nashornPersistentCodeCache && System.getProperty(NashornJSHinter.PERSISTENT_CODE_CACHE_PROPERTY) != null;
+    }
+
+    protected boolean useRhino()
+    {
+        return this.preferRhino || !NASHORN_AVAILABLE;
+    }
+
+    protected String determineScriptIdentity()
+    {
+        final String scriptIdentity;
+        if (this.jshintScript != null)
+        {
+            final File scriptFile = new File(this.baseDirectory, this.jshintScript);
+            if (scriptFile.isFile() && scriptFile.exists())
+            {
+                scriptIdentity = MessageFormat.format("file:{0}:{1}:{2}", scriptFile.getAbsolutePath(),
+                        String.valueOf(scriptFile.lastModified()), String.valueOf(scriptFile.length()));
+            }
+            else
+            {
+                scriptIdentity = "resource:" + this.jshintScript;
+            }
+        }
+        else
+        {
+            scriptIdentity = "version:" + this.jshintVersion;
+        }
+        return (this.useRhino() ? "rhino|" : "nashorn|") + scriptIdentity;
+    }
+
+    protected String determineEngineKey()
+    {
+        String engineKey = this.determineScriptIdentity();
+        if (this.useRhino() && this.useRhinoSnapshot)
+        {
+            engineKey = engineKey + "|snapshot:" + this.rhinoSnapshotDirectory.getAbsolutePath();
+        }
+        else if (!this.useRhino())
+        {
+            engineKey = engineKey + "|options:" + this.determineNashornOptions();
+            if (this.useNashornPersistentCodeCache())
+            {
+                engineKey = engineKey + "|code-cache";
+            }
+        }
+        return engineKey;
+    }
+
+    protected String determineResultCacheIdentity()
+    {
+        final String engine = this.useRhino() ? "rhino" : "nashorn";
+        final List<URL> scriptResources = new ArrayList<>();
+        // bundled scripts may change between plugin versions without affecting their version or resource path
+        scriptResources.add(JSHintMojo.class.getResource("jshint-" + engine + "-runner.js"));
+        if (this.jshintScript == null)
+        {
+            scriptResources.add(JSHintMojo.class.getResource("jshint-" + this.jshintVersion + "-" + engine + ".js"));
+        }
+        else
+        {
+            final File scriptFile = new File(this.baseDirectory, this.jshintScript);
+            if (!(scriptFile.isFile() && scriptFile.exists()))
+            {
+                scriptResources.add(JSHintMojo.class.getClassLoader().getResource(this.jshintScript));
+            }
+        }
+
+        final StringBuilder identityBuilder = new StringBuilder(this.determineScriptIdentity());
+        if (this.retainEvidence)
+        {
+            // cached results without evidence cannot be reused
+            identityBuilder.append("|evidence");
+        }
+        for (final URL scriptResource : scriptResources)
+        {
+            if (scriptResource != null)
+            {
+                identityBuilder.append("|sha1:").append(JSHintResultCache.hashResource(scriptResource));
+            }
+        }
+        return identityBuilder.toString();
+    }
+
+    protected JSHintResultCache loadResultCache()
+    {
+        final File resultCacheFile = new File(this.outputDirectory, this.resultCacheFile);
+        if (this.getLog().isDebugEnabled())
+        {
+            this.getLog().debug("Using JSHint result cache file: " + resultCacheFile);
+        }
+
+        final JSHintResultCache resultCache = new JSHintResultCache(this.getLog(), resultCacheFile, this.determineResultCacheIdentity());
+        resultCache.load();
+        return resultCache;
+    }
+
+    protected void startStreamingReports(final ScriptFileErrorCollector errorCollector, final List<StreamedReportFile> streamedReportFiles)
+    {
+        if (this.streamReports && StringUtils.isNotBlank(this.checkstyleReportFile))
         {
             if (this.getLog().isDebugEnabled())
             {
-                this.getLog().debug("Writing error report to checkstyle file: " + this.checkstyleReportFile);
+                this.getLog().debug("Streaming error report to checkstyle file: " + this.checkstyleReportFile);
             }
-            final File checkstyleReportFile = new File(this.outputDirectory, this.checkstyleReportFile);
 
-            final File parentDirectory = checkstyleReportFile.getParentFile();
-            if (!parentDirectory.exists())
+            final StreamedReportFile streamedReportFile = this.openStreamedReportFile(this.checkstyleReportFile, "checkstyle", false);
+            streamedReportFiles.add(streamedReportFile);
+
+            final CheckstyleJSHintReporter checkstyleJSHintReporter = new CheckstyleJSHintReporter();
+            checkstyleJSHintReporter.startReport(streamedReportFile.outputStream);
+            errorCollector.addStreamingReporter(checkstyleJSHintReporter);
+        }
+
+        if (StringUtils.isNotBlank(this.ndjsonReportFile))
+        {
+            if (this.getLog().isDebugEnabled())
             {
-                if (this.getLog().isDebugEnabled())
+                this.getLog().debug("Streaming validation results to NDJSON file: " + this.ndjsonReportFile);
+            }
+
+            // written in place so it can be tailed during validation
+            final StreamedReportFile streamedReportFile = this.openStreamedReportFile(this.ndjsonReportFile, "NDJSON", true);
+            streamedReportFiles.add(streamedReportFile);
+
+            final NDJSONJSHintReporter ndjsonJSHintReporter = new NDJSONJSHintReporter();
+            ndjsonJSHintReporter.startReport(streamedReportFile.outputStream);
+            errorCollector.addStreamingReporter(ndjsonJSHintReporter);
+        }
+    }
+
+    protected void finishStreamingReports(final List<StreamedReportFile> streamedReportFiles, final boolean completed)
+    {
+        for (final StreamedReportFile streamedReportFile : streamedReportFiles)
+        {
+            IOUtil.close(streamedReportFile.outputStream);
+        }
+
+        for (final StreamedReportFile streamedReportFile : streamedReportFiles)
+        {
+            if (completed && streamedReportFile.tempFile != null)
+            {
+                try
                 {
-                    this.getLog().debug("Creating report parent director(y|ies): " + parentDirectory);
+                    Files.move(streamedReportFile.tempFile.toPath(), streamedReportFile.reportFile.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (final IOException ioex)
+                {
+                    throw new RuntimeException(
+                            new MojoExecutionException("Failed to write report file " + streamedReportFile.reportFile, ioex));
+                }
+            }
+            else if (!completed)
+            {
+                final File incompleteFile = streamedReportFile.tempFile != null ? streamedReportFile.tempFile
+                        : streamedReportFile.reportFile;
+                if (!incompleteFile.delete())
+                {
+                    this.getLog().warn("Failed to delete incomplete report file " + incompleteFile);
                 }
-                parentDirectory.mkdirs();
             }
+        }
+    }
 
-            OutputStream os = null;
-            try
+    protected void writeReports(final Map<String, List<Error>> errorsByFile)
+    {
+        if (StringUtils.isNotBlank(this.checkstyleReportFile))
+        {
+            if (this.getLog().isDebugEnabled())
             {
-                os = new FileOutputStream(checkstyleReportFile, false);
+                this.getLog().debug("Writing error report to checkstyle file: " + this.checkstyleReportFile);
+            }
 
+            final JSHintEvent event = JSHintEvents.begin(JSHintEvents.Type.REPORT);
+            final OutputStream os = this.openReportFile(this.checkstyleReportFile, "checkstyle");
+            try
+            {
                 final CheckstyleJSHintReporter checkstyleJSHintReporter = new CheckstyleJSHintReporter();
                 checkstyleJSHintReporter.generateReport(errorsByFile, os);
             }
-            catch (final IOException ioex)
-            {
-                throw new RuntimeException(new MojoExecutionException("Failed to write checkstyle report file", ioex));
-            }
             finally
             {
                 IOUtil.close(os);
             }
+
+            if (event != null)
+            {
+                int errorCount = 0;
+                for (final List<Error> errors : errorsByFile.values())
+                {
+                    errorCount += errors.size();
+                }
+                event.setPath(this.checkstyleReportFile);
+                event.setErrorCount(errorCount);
+                event.commit();
+            }
+        }
+    }
+
+    protected StreamedReportFile openStreamedReportFile(final String reportFileName, final String reportType, final boolean inPlace)
+    {
+        final File reportFile = this.resolveReportFile(reportFileName);
+        try
+        {
+            final File tempFile = inPlace ? null : File.createTempFile(reportFile.getName() + "-", ".tmp", reportFile.getParentFile());
+            return new StreamedReportFile(reportFile, tempFile,
+                    new BufferedOutputStream(new FileOutputStream(tempFile != null ? tempFile : reportFile, false)));
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Failed to write " + reportType + " report file", ioex));
+        }
+    }
+
+    protected OutputStream openReportFile(final String reportFileName, final String reportType)
+    {
+        final File reportFile = this.resolveReportFile(reportFileName);
+        try
+        {
+            return new BufferedOutputStream(new FileOutputStream(reportFile, false));
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Failed to write " + reportType + " report file", ioex));
+        }
+    }
+
+    protected File resolveReportFile(final String reportFileName)
+    {
+        final File reportFile = new File(this.outputDirectory, reportFileName);
+
+        final File parentDirectory = reportFile.getParentFile();
+        if (!parentDirectory.exists())
+        {
+            if (this.getLog().isDebugEnabled())
+            {
+                this.getLog().debug("Creating report parent director(y|ies): " + parentDirectory);
+            }
+            parentDirectory.mkdirs();
+        }
+        return reportFile;
+    }
+
+    protected void reportMetrics(final JSHintMetrics metrics)
+    {
+        metrics.complete();
+        metrics.logSummary(this.getLog());
+
+        final File metricsFile = new File(this.outputDirectory, this.metricsFile);
+        if (this.getLog().isDebugEnabled())
+        {
+            this.getLog().debug("Writing JSHint metrics to file: " + metricsFile);
         }
+        metrics.writeMetricsFile(metricsFile);
     }
 
     protected String loadDefaultJSHintConfig()
@@ -496,6 +1587,9 @@ public class JSHintMojo extends AbstractMojo
             }
         }
 
+        // JSHint allows comments in its configuration files
+        defaultJSHintConfigContent = JSHintConfigIndex.stripComments(defaultJSHintConfigContent);
+
         if (this.getLog().isDebugEnabled())
         {
             this.getLog().debug("Loaded default JSHint config: " + defaultJSHintConfigContent);
@@ -503,128 +1597,4 @@ public class JSHintMojo extends AbstractMojo
 
         return defaultJSHintConfigContent;
     }
-
-    protected List<String> lookupJavaScriptFilesToInclude()
-    {
-        final DirectoryScanner scanner = new DirectoryScanner();
-        scanner.setBasedir(this.sourceDirectory);
-
-        if (this.includes != null && !this.includes.isEmpty())
-        {
-            if (this.getLog().isDebugEnabled())
-            {
-                this.getLog().debug("Using configured inclusion patterns: " + this.includes);
-            }
-            scanner.setIncludes(this.includes.toArray(new String[0]));
-        }
-        else
-        {
-            this.getLog().debug("Using default inclusion patterns *.js and  **/*.js");
-            scanner.setIncludes(new String[] { "*.js", "**/*.js" });
-        }
-
-        final List<String> effectiveExcludes = new ArrayList<>();
-        if (this.excludes != null && !this.excludes.isEmpty())
-        {
-            if (this.getLog().isDebugEnabled())
-            {
-                this.getLog().debug("Using configured exclusion patterns: " + this.excludes);
-            }
-            effectiveExcludes.addAll(this.excludes);
-        }
-
-        if (!this.ignoreJSHintIgnoreFiles)
-        {
-            final List<String> jshintIgnoreExcludes = this.loadExcludesFromJSHintIgnores();
-            effectiveExcludes.addAll(jshintIgnoreExcludes);
-        }
-
-        scanner.setExcludes(effectiveExcludes.toArray(new String[0]));
-        scanner.addDefaultExcludes();
-        scanner.scan();
-
-        final List<String> javaScriptFilesToInclude = Arrays.asList(scanner.getIncludedFiles());
-
-        if (this.getLog().isDebugEnabled())
-        {
-            this.getLog().debug("Determined set of JavaScript files to process: " + javaScriptFilesToInclude);
-        }
-
-        return javaScriptFilesToInclude;
-    }
-
-    protected List<String> loadExcludesFromJSHintIgnores()
-    {
-        final DirectoryScanner scanner = new DirectoryScanner();
-        scanner.setBasedir(this.sourceDirectory);
-
-        scanner.setIncludes(new String[] { ".jshintignore", "**/.jshintignore" });
-        scanner.scan();
-
-        final List<String> excludes = new ArrayList<>();
-        final String[] jshintIgnores = scanner.getIncludedFiles();
-        for (final String jshintIgnore : jshintIgnores)
-        {
-            final List<String> excludesFromFile = new ArrayList<>();
-            final String path;
-            if (jshintIgnore.contains(File.separator))
-            {
-                path = jshintIgnore.substring(0, jshintIgnore.lastIndexOf(File.separator));
-            }
-            else
-            {
-                path = null;
-            }
-
-            FileInputStream fin = null;
-            InputStreamReader isr = null;
-            BufferedReader reader = null;
-            try
-            {
-                final File jshintIgnoreFile = new File(this.sourceDirectory, jshintIgnore);
-                fin = new FileInputStream(jshintIgnoreFile);
-                isr = new InputStreamReader(fin, StandardCharsets.UTF_8);
-                reader = new BufferedReader(isr);
-
-                String line = null;
-                while ((line = reader.readLine()) != null)
-                {
-                    if (!StringUtils.isBlank(line))
-                    {
-                        excludesFromFile.add(line);
-                        if (path != null)
-                        {
-                            excludes.add(path + File.separator + line);
-                        }
-                        else
-                        {
-                            excludes.add(line);
-                        }
-                    }
-                }
-
-                if (this.getLog().isDebugEnabled())
-                {
-                    this.getLog().debug(MessageFormat.format("Loaded exclusion patterns {0} from {1}", excludesFromFile, jshintIgnoreFile));
-                }
-            }
-            catch (final IOException ioex)
-            {
-                throw new RuntimeException(new MojoExecutionException("Error loading .jshintignore", ioex));
-            }
-            finally
-            {
-                IOUtil.close(reader);
-                IOUtil.close(isr);
-                IOUtil.close(fin);
-            }
-        }
-
-        if (this.getLog().isDebugEnabled())
-        {
-            this.getLog().debug("Loaded excludes from .jshintignore files: " + excludes);
-        }
-
-        return excludes;
-    }
 }
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+
+import de.acosix.maven.jshint.JSHintSourcePrefetcher.ScriptSource;
+
+/**
+ * Instances of this class persist the results of previous JSHint validations so that unchanged script files do not need to be validated
+ * again. Results are only reused if the content of the script file, the effective JSHint configuration and the identity of the JSHint
+ * script all match. A cheap check of the last modified timestamp and the size of a script file precedes any hashing of its content. The
+ * content recorded for a validated script file is the content that was actually validated, as {@link #recordSource(String, ScriptSource)
+ * recorded} when it was read.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintResultCache
+{
+
+    protected static final int FORMAT_VERSION = 2;
+
+    protected static final String HASH_ALGORITHM = "SHA-1";
+
+    // classpath resources do not change during the lifetime of the class loader
+    protected static final Map<String, String> RESOURCE_HASHES = new ConcurrentHashMap<>();
+
+    protected static class CacheEntry implements Serializable
+    {
+
+        private static final long serialVersionUID = 2410873623461946543L;
+
+        protected final long lastModified;
+
+        protected final long size;
+
+        protected final String contentHash;
+
+        protected final String configHash;
+
+        protected final List<Error> errors;
+
+        protected CacheEntry(final long lastModified, final long size, final String contentHash, final String configHash,
+                final List<Error> errors)
+        {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.contentHash = contentHash;
+            this.configHash = configHash;
+            this.errors = errors;
+        }
+    }
+
+    protected final Log log;
+
+    protected final File cacheFile;
+
+    protected final String scriptIdentity;
+
+    protected final Map<String, CacheEntry> previousEntries = new HashMap<>();
+
+    protected final Map<String, CacheEntry> currentEntries = new ConcurrentHashMap<>();
+
+    protected final Map<String, String> configHashes = new ConcurrentHashMap<>();
+
+    protected final Map<String, CacheEntry> recordedSources = new ConcurrentHashMap<>();
+
+    public JSHintResultCache(final Log log, final File cacheFile, final String scriptIdentity)
+    {
+        if (log == null)
+        {
+            throw new IllegalArgumentException("log not provided");
+        }
+
+        if (cacheFile == null)
+        {
+            throw new IllegalArgumentException("cacheFile not provided");
+        }
+
+        if (StringUtils.isBlank(scriptIdentity))
+        {
+            throw new IllegalArgumentException("scriptIdentity not provided");
+        }
+
+        this.log = log;
+        this.cacheFile = cacheFile;
+        this.scriptIdentity = scriptIdentity;
+    }
+
+    /**
+     * Loads the results of a previous execution from the cache file. Any cache file that cannot be read or has been written for a different
+     * JSHint script is silently discarded.
+     */
+    @SuppressWarnings("unchecked")
+    public void load()
+    {
+        this.previousEntries.clear();
+
+        if (this.cacheFile.isFile() && this.cacheFile.exists())
+        {
+            InputStream is = null;
+            ObjectInputStream ois = null;
+            try
+            {
+                is = new BufferedInputStream(new FileInputStream(this.cacheFile));
+                ois = new ObjectInputStream(is);
+
+                final int formatVersion = ois.readInt();
+                final String scriptIdentity = ois.readUTF();
+                if (formatVersion == FORMAT_VERSION && this.scriptIdentity.equals(scriptIdentity))
+                {
+                    this.previousEntries.putAll((Map<String, CacheEntry>) ois.readObject());
+                    if (this.log.isDebugEnabled())
+                    {
+                        this.log.debug(MessageFormat.format("Loaded {0} cached JSHint results from {1}",
+                                String.valueOf(this.previousEntries.size()), this.cacheFile));
+                    }
+                }
+                else if (this.log.isDebugEnabled())
+                {
+                    this.log.debug(MessageFormat.format("Discarding cached JSHint results from {0} created for {1}", this.cacheFile,
+                            scriptIdentity));
+                }
+            }
+            catch (final IOException | ClassNotFoundException | ClassCastException ex)
+            {
+                this.log.warn(MessageFormat.format("Discarding unreadable JSHint result cache {0}", this.cacheFile), ex);
+                this.previousEntries.clear();
+            }
+            finally
+            {
+                IOUtil.close(ois);
+                IOUtil.close(is);
+            }
+        }
+    }
+
+    /**
+     * Saves the results of the current execution to the cache file. Only results for script files that have been looked up or stored
+     * during the current execution are retained.
+     */
+    public void save()
+    {
+        final File parentDirectory = this.cacheFile.getParentFile();
+        if (parentDirectory != null && !parentDirectory.exists())
+        {
+            parentDirectory.mkdirs();
+        }
+
+        OutputStream os = null;
+        ObjectOutputStream oos = null;
+        try
+        {
+            os = new BufferedOutputStream(new FileOutputStream(this.cacheFile, false));
+            oos = new ObjectOutputStream(os);
+
+            oos.writeInt(FORMAT_VERSION);
+            oos.writeUTF(this.scriptIdentity);
+            oos.writeObject(new HashMap<>(this.currentEntries));
+            oos.flush();
+
+            if (this.log.isDebugEnabled())
+            {
+                this.log.debug(MessageFormat.format("Saved {0} JSHint results to cache {1}", String.valueOf(this.currentEntries.size()),
+                        this.cacheFile));
+            }
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error writing JSHint result cache " + this.cacheFile, ioex));
+        }
+        finally
+        {
+            IOUtil.close(oos);
+            IOUtil.close(os);
+        }
+    }
+
+    /**
+     * Looks up the cached result of a previous validation of a script file.
+     *
+     * @param baseDirectory
+     *            the base directory that contains the script file
+     * @param path
+     *            the path relative to the base directory that denotes the script file
+     * @param effectiveJSHintConfigContent
+     *            the effective JSHint configuration for the script file
+     * @return the cached errors or {@code null} if no valid result was cached for the script file in its current state
+     */
+    public List<Error> lookup(final File baseDirectory, final String path, final String effectiveJSHintConfigContent)
+    {
+        List<Error> errors = null;
+
+        final CacheEntry previousEntry = this.previousEntries.get(path);
+        if (previousEntry != null && previousEntry.configHash.equals(this.getConfigHash(effectiveJSHintConfigContent)))
+        {
+            final File scriptFile = new File(baseDirectory, path);
+            final long lastModified = scriptFile.lastModified();
+            final long size = scriptFile.length();
+
+            if (previousEntry.lastModified == lastModified && previousEntry.size == size)
+            {
+                errors = previousEntry.errors;
+                this.currentEntries.put(path, previousEntry);
+            }
+            else if (previousEntry.size == size)
+            {
+                final ScriptSource source = JSHintSourcePrefetcher.readSource(baseDirectory, path);
+                if (previousEntry.contentHash.equals(this.hashContent(source.getContent())))
+                {
+                    errors = previousEntry.errors;
+                    this.currentEntries.put(path, new CacheEntry(source.getLastModified(), source.getSize(), previousEntry.contentHash,
+                            previousEntry.configHash, previousEntry.errors));
+                }
+            }
+        }
+
+        return errors != null ? new ArrayList<>(errors) : null;
+    }
+
+    /**
+     * Records the source of a script file as read for validation so that the result of the validation can be {@link #store(String,
+     * String, List) stored} for the content that was actually validated.
+     *
+     * @param path
+     *            the path relative to the base directory that denotes the script file
+     * @param source
+     *            the source of the script file
+     */
+    public void recordSource(final String path, final ScriptSource source)
+    {
+        this.recordedSources.put(path,
+                new CacheEntry(source.getLastModified(), source.getSize(), this.hashContent(source.getContent()), null, null));
+    }
+
+    /**
+     * Stores the result of the validation of a script file. The result is only stored if the source of the script file has been
+     * {@link #recordSource(String, ScriptSource) recorded} before.
+     *
+     * @param path
+     *            the path relative to the base directory that denotes the script file
+     * @param effectiveJSHintConfigContent
+     *            the effective JSHint configuration for the script file
+     * @param errors
+     *            the errors found during validation
+     */
+    public void store(final String path, final String effectiveJSHintConfigContent, final List<Error> errors)
+    {
+        final CacheEntry recordedSource = this.recordedSources.remove(path);
+        if (recordedSource != null)
+        {
+            this.currentEntries.put(path, new CacheEntry(recordedSource.lastModified, recordedSource.size, recordedSource.contentHash,
+                    this.getConfigHash(effectiveJSHintConfigContent), new ArrayList<>(errors)));
+        }
+        else if (this.log.isDebugEnabled())
+        {
+            this.log.debug("Not caching JSHint result for " + path + " as its validated source has not been recorded");
+        }
+    }
+
+    /**
+     * Determines the hash of a classpath resource, i.e. a JSHint or runner script, for inclusion in the script identity of a cache.
+     *
+     * @param resource
+     *            the resource to hash
+     * @return the hash of the content of the resource
+     */
+    public static String hashResource(final URL resource)
+    {
+        final String resourceKey = resource.toExternalForm();
+        String resourceHash = RESOURCE_HASHES.get(resourceKey);
+        if (resourceHash == null)
+        {
+            final MessageDigest digest = createDigest();
+
+            InputStream is = null;
+            try
+            {
+                is = resource.openStream();
+                final byte[] buffer = new byte[8192];
+                int bytesRead;
+                while ((bytesRead = is.read(buffer)) != -1)
+                {
+                    digest.update(buffer, 0, bytesRead);
+                }
+            }
+            catch (final IOException ioex)
+            {
+                throw new RuntimeException(new MojoExecutionException("Error hashing " + resource, ioex));
+            }
+            finally
+            {
+                IOUtil.close(is);
+            }
+
+            resourceHash = toHex(digest.digest());
+            RESOURCE_HASHES.put(resourceKey, resourceHash);
+        }
+        return resourceHash;
+    }
+
+    protected String getConfigHash(final String effectiveJSHintConfigContent)
+    {
+        String configHash = this.configHashes.get(effectiveJSHintConfigContent);
+        if (configHash == null)
+        {
+            final MessageDigest digest = createDigest();
+            configHash = toHex(digest.digest(effectiveJSHintConfigContent.getBytes(StandardCharsets.UTF_8)));
+            this.configHashes.put(effectiveJSHintConfigContent, configHash);
+        }
+        return configHash;
+    }
+
+    protected String hashContent(final String content)
+    {
+        final MessageDigest digest = createDigest();
+        return toHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    protected static MessageDigest createDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        }
+        catch (final NoSuchAlgorithmException nsaex)
+        {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not supported by the current JVM", nsaex);
+        }
+    }
+
+    protected static String toHex(final byte[] bytes)
+    {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes)
+        {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Instances of this class read and decode script files ahead of their validation on a dedicated I/O executor, so that JSHint engines do
+ * not have to wait on (potentially slow, e.g. network-mounted) file systems before validating the next script file. Script files that have
+ * not been prefetched are read synchronously on demand.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintSourcePrefetcher
+{
+
+    /**
+     * Instances of this class hold the decoded content of a script file together with the state of the file before it was read.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static class ScriptSource
+    {
+
+        protected final String content;
+
+        protected final long lastModified;
+
+        protected final long size;
+
+        protected ScriptSource(final String content, final long lastModified, final long size)
+        {
+            this.content = content;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        /**
+         * @return the content
+         */
+        public String getContent()
+        {
+            return this.content;
+        }
+
+        /**
+         * @return the last modified timestamp of the script file as determined before reading it
+         */
+        public long getLastModified()
+        {
+            return this.lastModified;
+        }
+
+        /**
+         * @return the number of bytes read from the script file
+         */
+        public long getSize()
+        {
+            return this.size;
+        }
+    }
+
+    protected final File baseDirectory;
+
+    protected final ExecutorService executor;
+
+    protected final ConcurrentMap<String, Future<ScriptSource>> pendingReads = new ConcurrentHashMap<>();
+
+    public JSHintSourcePrefetcher(final File baseDirectory, final int threadCount)
+    {
+        if (baseDirectory == null)
+        {
+            throw new IllegalArgumentException("baseDirectory not provided");
+        }
+
+        if (threadCount <= 0)
+        {
+            throw new IllegalArgumentException("threadCount must be a positive integer");
+        }
+
+        this.baseDirectory = baseDirectory;
+        this.executor = Executors.newFixedThreadPool(threadCount, new ThreadFactory()
+        {
+
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, "jshint-source-read-" + this.threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Schedules script files to be read ahead of their validation.
+     *
+     * @param paths
+     *            the paths relative to the base directory that denote the script files
+     */
+    public void prefetch(final Collection<String> paths)
+    {
+        for (final String path : paths)
+        {
+            if (!this.pendingReads.containsKey(path))
+            {
+                this.pendingReads.put(path, this.executor.submit(new Callable<ScriptSource>()
+                {
+
+                    /**
+                     *
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public ScriptSource call()
+                    {
+                        return readSource(JSHintSourcePrefetcher.this.baseDirectory, path);
+                    }
+                }));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the source of a script file, waiting for a scheduled read to complete or reading the script file synchronously if
+     * it has not been scheduled.
+     *
+     * @param baseDirectory
+     *            the base directory that contains the script file
+     * @param path
+     *            the path relative to the base directory that denotes the script file
+     * @return the source of the script file
+     */
+    public ScriptSource getSource(final File baseDirectory, final String path)
+    {
+        final Future<ScriptSource> pendingRead = this.baseDirectory.equals(baseDirectory) ? this.pendingReads.remove(path) : null;
+
+        final ScriptSource source;
+        if (pendingRead != null)
+        {
+            try
+            {
+                source = pendingRead.get();
+            }
+            catch (final InterruptedException iex)
+            {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(
+                        new MojoExecutionException("Interrupted while loading " + baseDirectory + File.separator + path, iex));
+            }
+            catch (final ExecutionException eex)
+            {
+                final Throwable cause = eex.getCause();
+                if (cause instanceof RuntimeException)
+                {
+                    throw (RuntimeException) cause;
+                }
+                throw new RuntimeException(new MojoExecutionException("Error loading " + baseDirectory + File.separator + path, cause));
+            }
+        }
+        else
+        {
+            source = readSource(baseDirectory, path);
+        }
+        return source;
+    }
+
+    /**
+     * Discards the results of any reads scheduled for script files that have not been retrieved, e.g. because their validation was
+     * skipped due to a cached result.
+     *
+     * @param paths
+     *            the paths relative to the base directory that denote the script files
+     */
+    public void discard(final Collection<String> paths)
+    {
+        for (final String path : paths)
+        {
+            final Future<ScriptSource> pendingRead = this.pendingReads.remove(path);
+            if (pendingRead != null)
+            {
+                pendingRead.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Shuts down the I/O executor of this instance and discards any pending reads.
+     */
+    public void shutdown()
+    {
+        this.executor.shutdownNow();
+        this.pendingReads.clear();
+    }
+
+    /**
+     * Reads the source of a script file in one bulk operation into a heap buffer sized to the file and decodes it as a whole. Memory-mapped
+     * reads would only save a single copy while keeping the file locked on some platforms until the mapping is garbage collected.
+     *
+     * @param baseDirectory
+     *            the base directory that contains the script file
+     * @param path
+     *            the path relative to the base directory that denotes the script file
+     * @return the source of the script file
+     */
+    public static ScriptSource readSource(final File baseDirectory, final String path)
+    {
+        final ScriptSource source;
+
+        FileChannel channel = null;
+        try
+        {
+            final File sourceFile = new File(baseDirectory, path);
+            // determined before reading so that any concurrent modification is detected on the next check
+            final long lastModified = sourceFile.lastModified();
+            channel = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ);
+
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException("Script file exceeds maximum supported size");
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            int bytesRead = 0;
+            // file may have been truncated concurrently
+            while (buffer.hasRemaining() && bytesRead != -1)
+            {
+                bytesRead = channel.read(buffer);
+            }
+            final int contentLength = stripFinalLineBreak(buffer.array(), buffer.position());
+            source = new ScriptSource(new String(buffer.array(), 0, contentLength, StandardCharsets.UTF_8), lastModified,
+                    buffer.position());
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error loading " + baseDirectory + File.separator + path, ioex));
+        }
+        finally
+        {
+            IOUtil.close(channel);
+        }
+
+        return source;
+    }
+
+    /**
+     * Determines the length of the content of a script file excluding a single final line break. JSHint splits a source string into lines
+     * itself and would otherwise treat the text after a final line break as an additional empty line, shifting the position of findings
+     * reported at the end of the file compared to the lines as read via {@link java.io.BufferedReader#readLine() readLine}.
+     *
+     * @param bytes
+     *            the UTF-8 encoded content of the script file
+     * @param length
+     *            the number of bytes of the content
+     * @return the number of bytes of the content excluding a final {@code \n}, {@code \r\n} or {@code \r} line break
+     */
+    protected static int stripFinalLineBreak(final byte[] bytes, final int length)
+    {
+        int contentLength = length;
+        if (contentLength > 0 && bytes[contentLength - 1] == '\n')
+        {
+            contentLength--;
+        }
+        // a preceding \r belongs to the same (CRLF) line break or is a line break itself
+        if (contentLength > 0 && bytes[contentLength - 1] == '\r')
+        {
+            contentLength--;
+        }
+        return contentLength;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import de.acosix.maven.jshint.JSHintSourceScanner.ScanListener;
+
+/**
+ * Instances of this class run a {@link JSHintSourceScanner scan} of a source directory in a background thread and hand off the script files
+ * found via a bounded queue, so that validation can start as soon as the first script file has been found. If the consumer cannot keep up,
+ * the scan is paused until space becomes available in the queue, keeping memory usage bounded independent of the size of the source tree.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintSourceQueue
+{
+
+    // identity-compared marker for the end of the scan
+    protected static final String END_OF_SCAN = new String();
+
+    // the scan only blocks interruptibly on the queue, but may take a moment to notice the interrupt while listing a large directory
+    protected static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    protected final JSHintSourceScanner scanner;
+
+    protected final JSHintConfigIndex configIndex;
+
+    protected final BlockingQueue<String> queue;
+
+    protected Thread scanThread;
+
+    protected volatile Throwable scanFailure;
+
+    protected boolean endOfScanReached;
+
+    protected int scriptFilesTaken;
+
+    /**
+     * Creates a new queue for the script files found by a scanner.
+     *
+     * @param scanner
+     *            the scanner to run
+     * @param configIndex
+     *            the configuration index to notify of directories containing a {@code .jshintrc} file - may be {@code null}
+     * @param capacity
+     *            the maximum number of script files to hold in the queue
+     */
+    public JSHintSourceQueue(final JSHintSourceScanner scanner, final JSHintConfigIndex configIndex, final int capacity)
+    {
+        if (scanner == null)
+        {
+            throw new IllegalArgumentException("scanner not provided");
+        }
+
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("capacity must be a positive integer");
+        }
+
+        this.scanner = scanner;
+        this.configIndex = configIndex;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Starts the scan in a background thread.
+     */
+    public synchronized void start()
+    {
+        if (this.scanThread != null)
+        {
+            throw new IllegalStateException("Scan has already been started");
+        }
+
+        this.scanThread = new Thread(new Runnable()
+        {
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public void run()
+            {
+                JSHintSourceQueue.this.runScan();
+            }
+        }, "jshint-source-scan");
+        this.scanThread.setDaemon(true);
+        this.scanThread.start();
+    }
+
+    /**
+     * Retrieves the next batch of script files, waiting for the scan to find them if necessary.
+     *
+     * @param batchSize
+     *            the maximum number of script files to retrieve
+     * @return the next batch of script files - this will only contain less than the requested number of script files if the scan has
+     *         completed and will be empty if no further script files are available
+     * @throws InterruptedException
+     *             if the current thread was interrupted while waiting for the scan
+     */
+    public List<String> takeBatch(final int batchSize) throws InterruptedException
+    {
+        final List<String> batch = new ArrayList<>(batchSize);
+        while (!this.endOfScanReached && batch.size() < batchSize)
+        {
+            final String path = this.queue.take();
+            if (path == END_OF_SCAN)
+            {
+                this.endOfScanReached = true;
+
+                final Throwable failure = this.scanFailure;
+                if (failure instanceof RuntimeException)
+                {
+                    throw (RuntimeException) failure;
+                }
+                else if (failure instanceof java.lang.Error)
+                {
+                    throw (java.lang.Error) failure;
+                }
+            }
+            else
+            {
+                batch.add(path);
+                this.scriptFilesTaken++;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * @return the number of script files retrieved from this queue so far
+     */
+    public int getScriptFilesTaken()
+    {
+        return this.scriptFilesTaken;
+    }
+
+    /**
+     * Stops the scan if it is still running, e.g. because validation has been aborted due to an error, and waits a bounded amount of time
+     * for the scan thread to terminate, so that any output of the scan is complete once this operation returns.
+     */
+    public synchronized void close()
+    {
+        if (this.scanThread != null && this.scanThread.isAlive())
+        {
+            this.scanThread.interrupt();
+            try
+            {
+                this.scanThread.join(CLOSE_TIMEOUT_MILLIS);
+            }
+            catch (final InterruptedException iex)
+            {
+                // preserve for caller
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected void runScan()
+    {
+        try
+        {
+            this.scanner.scan(new ScanListener()
+            {
+
+                /**
+                 *
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void configDirectoryFound(final String directoryPath)
+                {
+                    if (JSHintSourceQueue.this.configIndex != null)
+                    {
+                        JSHintSourceQueue.this.configIndex.addConfigDirectory(directoryPath);
+                    }
+                }
+
+                /**
+                 *
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void scriptFileFound(final String path) throws InterruptedException
+                {
+                    JSHintSourceQueue.this.queue.put(path);
+                }
+            });
+        }
+        catch (final InterruptedException iex)
+        {
+            // consumer is no longer interested
+            return;
+        }
+        catch (final RuntimeException | java.lang.Error ex)
+        {
+            this.scanFailure = ex;
+        }
+
+        try
+        {
+            this.queue.put(END_OF_SCAN);
+        }
+        catch (final InterruptedException iex)
+        {
+            // consumer is no longer interested
+            Thread.currentThread().interrupt();
+        }
+    }
+}
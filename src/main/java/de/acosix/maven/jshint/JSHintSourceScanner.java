@@ -0,0 +1,584 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.AbstractScanner;
+import org.codehaus.plexus.util.MatchPatterns;
+import org.codehaus.plexus.util.SelectorUtils;
+import org.codehaus.plexus.util.StringUtils;
+
+import de.acosix.maven.jshint.JSHintMetrics.Phase;
+
+/**
+ * Instances of this class discover the script files to validate in a source directory together with any {@code .jshintignore} and
+ * {@code .jshintrc} files in a single walk of the file tree. Include / exclude patterns use the same syntax and defaults as the plexus
+ * {@link org.codehaus.plexus.util.DirectoryScanner directory scanner}.
+ *
+ * Directories are processed one at a time, handling any {@code .jshintignore} file before any file or sub-directory, so that sub-trees
+ * which cannot contain included script files or which are excluded as a whole (e.g. via a {@code node_modules/**} pattern) are not walked
+ * at all.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintSourceScanner
+{
+
+    public static final String JSHINT_IGNORE_FILE_NAME = ".jshintignore";
+
+    public static final String JSHINT_CONFIG_FILE_NAME = ".jshintrc";
+
+    protected static final List<String> DEFAULT_INCLUDES = Collections.unmodifiableList(Arrays.asList("*.js", "**/*.js"));
+
+    /**
+     * The patterns for well-known directories of third-party dependencies which are excluded by default.
+     */
+    public static final List<String> DEFAULT_DEPENDENCY_EXCLUDES = Collections
+            .unmodifiableList(Arrays.asList("**/node_modules/**", "**/bower_components/**", "**/jspm_packages/**"));
+
+    protected static final String ANY_SUB_PATH_SUFFIX = File.separator + "**";
+
+    /**
+     * Instances of this class represent the result of scanning a source directory.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static class ScanResult
+    {
+
+        protected final List<String> scriptFiles;
+
+        protected final List<String> configDirectories;
+
+        protected ScanResult(final List<String> scriptFiles, final List<String> configDirectories)
+        {
+            this.scriptFiles = scriptFiles;
+            this.configDirectories = configDirectories;
+        }
+
+        /**
+         * @return the paths relative to the source directory of all script files to validate
+         */
+        public List<String> getScriptFiles()
+        {
+            return this.scriptFiles;
+        }
+
+        /**
+         * @return the paths relative to the source directory of all directories containing a {@code .jshintrc} file - the source
+         *         directory itself is denoted by an empty string
+         */
+        public List<String> getConfigDirectories()
+        {
+            return this.configDirectories;
+        }
+    }
+
+    /**
+     * Instances of this interface are notified of relevant files as they are found during a scan.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static interface ScanListener
+    {
+
+        /**
+         * Notifies this listener of a directory containing a {@code .jshintrc} file.
+         *
+         * @param directoryPath
+         *            the path relative to the source directory of the directory - the source directory itself is denoted by an empty
+         *            string
+         */
+        void configDirectoryFound(String directoryPath);
+
+        /**
+         * Notifies this listener of a script file to validate.
+         *
+         * @param path
+         *            the path relative to the source directory of the script file
+         * @throws InterruptedException
+         *             if the current thread was interrupted while waiting to hand off the script file
+         */
+        void scriptFileFound(String path) throws InterruptedException;
+    }
+
+    /**
+     * Instances of this class hold a set of exclusion patterns for matching both individual files and entire directories.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    protected static class ExclusionPatterns
+    {
+
+        protected final MatchPatterns filePatterns;
+
+        protected final MatchPatterns directoryPatterns;
+
+        protected ExclusionPatterns(final List<String> patterns)
+        {
+            final List<String> filePatterns = new ArrayList<>(patterns.size());
+            final List<String> directoryPatterns = new ArrayList<>();
+            for (final String pattern : patterns)
+            {
+                final String normalisedPattern = normalisePattern(pattern);
+                filePatterns.add(normalisedPattern);
+
+                // a pattern ending in /** excludes everything in any directory matched by the remainder of the pattern
+                if (!normalisedPattern.startsWith(SelectorUtils.REGEX_HANDLER_PREFIX) && normalisedPattern.endsWith(ANY_SUB_PATH_SUFFIX)
+                        && normalisedPattern.length() > ANY_SUB_PATH_SUFFIX.length())
+                {
+                    directoryPatterns.add(normalisedPattern.substring(0, normalisedPattern.length() - ANY_SUB_PATH_SUFFIX.length()));
+                }
+            }
+
+            this.filePatterns = MatchPatterns.from(filePatterns);
+            this.directoryPatterns = MatchPatterns.from(directoryPatterns);
+        }
+    }
+
+    protected final Log log;
+
+    protected final File sourceDirectory;
+
+    protected final List<String> includes;
+
+    protected final List<String> excludes;
+
+    protected final boolean ignoreJSHintIgnoreFiles;
+
+    protected boolean useDefaultExcludes = true;
+
+    protected JSHintMetrics metrics;
+
+    // time spent within a scan on loading .jshintignore files or in the listener, i.e. not attributable to the scan phase itself
+    protected long nonScanNanos;
+
+    public JSHintSourceScanner(final Log log, final File sourceDirectory, final List<String> includes, final List<String> excludes,
+            final boolean ignoreJSHintIgnoreFiles)
+    {
+        if (log == null)
+        {
+            throw new IllegalArgumentException("log not provided");
+        }
+
+        if (sourceDirectory == null)
+        {
+            throw new IllegalArgumentException("sourceDirectory not provided");
+        }
+
+        this.log = log;
+        this.sourceDirectory = sourceDirectory;
+        this.includes = includes != null && !includes.isEmpty() ? new ArrayList<>(includes) : DEFAULT_INCLUDES;
+        this.excludes = excludes != null ? new ArrayList<>(excludes) : Collections.<String> emptyList();
+        this.ignoreJSHintIgnoreFiles = ignoreJSHintIgnoreFiles;
+    }
+
+    /**
+     * @param useDefaultExcludes
+     *            {@code true} if {@link #DEFAULT_DEPENDENCY_EXCLUDES well-known directories of third-party dependencies} should be
+     *            excluded by default
+     */
+    public void setUseDefaultExcludes(final boolean useDefaultExcludes)
+    {
+        this.useDefaultExcludes = useDefaultExcludes;
+    }
+
+    /**
+     * @param metrics
+     *            the metrics to which to record the timings of scans - may be {@code null} to not record any timings
+     */
+    public void setMetrics(final JSHintMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Scans the source directory for script files, {@code .jshintignore} and {@code .jshintrc} files.
+     *
+     * @return the result of the scan
+     */
+    public ScanResult scan()
+    {
+        final List<String> scriptFiles = new ArrayList<>();
+        final List<String> configDirectories = new ArrayList<>();
+
+        try
+        {
+            this.scan(new ScanListener()
+            {
+
+                /**
+                 *
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void configDirectoryFound(final String directoryPath)
+                {
+                    configDirectories.add(directoryPath);
+                }
+
+                /**
+                 *
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void scriptFileFound(final String path)
+                {
+                    scriptFiles.add(path);
+                }
+            });
+        }
+        catch (final InterruptedException iex)
+        {
+            // cannot occur as listener never waits
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during scan", iex);
+        }
+
+        return new ScanResult(scriptFiles, configDirectories);
+    }
+
+    /**
+     * Scans the source directory for script files, {@code .jshintignore} and {@code .jshintrc} files, reporting each script file and
+     * {@code .jshintrc} file to the listener as soon as it has been found. A directory containing a {@code .jshintrc} file is always
+     * reported before any script file contained in it or any of its sub-directories.
+     *
+     * @param listener
+     *            the listener to notify
+     * @throws InterruptedException
+     *             if the current thread was interrupted while the listener was waiting
+     */
+    public void scan(final ScanListener listener) throws InterruptedException
+    {
+        if (listener == null)
+        {
+            throw new IllegalArgumentException("listener not provided");
+        }
+
+        if (!this.sourceDirectory.isDirectory())
+        {
+            throw new RuntimeException(
+                    new MojoExecutionException(MessageFormat.format("Source directory {0} does not exist", this.sourceDirectory)));
+        }
+
+        final List<String> effectiveExcludes = new ArrayList<>(this.excludes);
+        effectiveExcludes.addAll(Arrays.asList(AbstractScanner.DEFAULTEXCLUDES));
+        if (this.useDefaultExcludes)
+        {
+            effectiveExcludes.addAll(DEFAULT_DEPENDENCY_EXCLUDES);
+        }
+
+        if (this.log.isDebugEnabled())
+        {
+            this.log.debug("Using inclusion patterns: " + this.includes);
+            this.log.debug("Using exclusion patterns: " + effectiveExcludes);
+        }
+
+        final List<String> normalisedIncludes = new ArrayList<>(this.includes.size());
+        for (final String include : this.includes)
+        {
+            normalisedIncludes.add(normalisePattern(include));
+        }
+        final MatchPatterns includePatterns = MatchPatterns.from(normalisedIncludes);
+
+        final ScanListener effectiveListener = this.metrics != null ? this.createTimingListener(listener) : listener;
+        this.nonScanNanos = 0;
+        final long startNanos = System.nanoTime();
+
+        final Path basePath = this.sourceDirectory.toPath();
+        final Set<Object> ancestorKeys = new HashSet<>();
+        ancestorKeys.add(this.getDirectoryKey(basePath));
+        try
+        {
+            this.scanDirectory(basePath, "", includePatterns, Collections.singletonList(new ExclusionPatterns(effectiveExcludes)),
+                    ancestorKeys, effectiveListener);
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error scanning source directory " + this.sourceDirectory, ioex));
+        }
+        finally
+        {
+            if (this.metrics != null)
+            {
+                this.metrics.addPhaseNanos(Phase.SCAN, System.nanoTime() - startNanos - this.nonScanNanos);
+            }
+        }
+    }
+
+    protected ScanListener createTimingListener(final ScanListener listener)
+    {
+        return new ScanListener()
+        {
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public void configDirectoryFound(final String directoryPath)
+            {
+                final long startNanos = System.nanoTime();
+                try
+                {
+                    listener.configDirectoryFound(directoryPath);
+                }
+                finally
+                {
+                    JSHintSourceScanner.this.nonScanNanos += System.nanoTime() - startNanos;
+                }
+            }
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public void scriptFileFound(final String path) throws InterruptedException
+            {
+                // excludes time spent waiting for the consumer
+                final long startNanos = System.nanoTime();
+                try
+                {
+                    listener.scriptFileFound(path);
+                }
+                finally
+                {
+                    JSHintSourceScanner.this.nonScanNanos += System.nanoTime() - startNanos;
+                }
+            }
+        };
+    }
+
+    protected void scanDirectory(final Path directory, final String directoryPath, final MatchPatterns includePatterns,
+            final List<ExclusionPatterns> exclusions, final Set<Object> ancestorKeys, final ScanListener listener)
+            throws IOException, InterruptedException
+    {
+        // sorted by name for a stable order of results independent of the file system
+        final TreeMap<String, Path> files = new TreeMap<>();
+        final TreeMap<String, Path> subDirectories = new TreeMap<>();
+        this.listDirectory(directory, files, subDirectories);
+
+        List<ExclusionPatterns> effectiveExclusions = exclusions;
+        if (!this.ignoreJSHintIgnoreFiles && files.containsKey(JSHINT_IGNORE_FILE_NAME))
+        {
+            final List<String> jshintIgnoreExcludes = this.loadExcludesFromJSHintIgnore(files.get(JSHINT_IGNORE_FILE_NAME), directoryPath);
+            effectiveExclusions = new ArrayList<>(exclusions);
+            effectiveExclusions.add(new ExclusionPatterns(jshintIgnoreExcludes));
+        }
+
+        if (files.containsKey(JSHINT_CONFIG_FILE_NAME))
+        {
+            listener.configDirectoryFound(directoryPath);
+        }
+
+        final String pathPrefix = directoryPath.isEmpty() ? "" : directoryPath + File.separator;
+        for (final String fileName : files.keySet())
+        {
+            final String path = pathPrefix + fileName;
+            if (includePatterns.matches(path, true) && !isExcluded(path, effectiveExclusions))
+            {
+                if (this.log.isDebugEnabled())
+                {
+                    this.log.debug("Found JavaScript file to process: " + path);
+                }
+                listener.scriptFileFound(path);
+            }
+        }
+
+        for (final String directoryName : subDirectories.keySet())
+        {
+            final String subDirectoryPath = pathPrefix + directoryName;
+            if (!includePatterns.matchesPatternStart(subDirectoryPath, true))
+            {
+                if (this.log.isDebugEnabled())
+                {
+                    this.log.debug(MessageFormat.format("Skipping directory {0} as it cannot contain included files", subDirectoryPath));
+                }
+            }
+            else if (isDirectoryExcluded(subDirectoryPath, effectiveExclusions))
+            {
+                if (this.log.isDebugEnabled())
+                {
+                    this.log.debug(MessageFormat.format("Skipping excluded directory {0}", subDirectoryPath));
+                }
+            }
+            else
+            {
+                final Path subDirectory = subDirectories.get(directoryName);
+                final Object key = this.getDirectoryKey(subDirectory);
+                // guard against cycles via symbolic links
+                if (key != null && ancestorKeys.add(key))
+                {
+                    try
+                    {
+                        this.scanDirectory(subDirectory, subDirectoryPath, includePatterns, effectiveExclusions, ancestorKeys, listener);
+                    }
+                    finally
+                    {
+                        ancestorKeys.remove(key);
+                    }
+                }
+                else if (this.log.isDebugEnabled())
+                {
+                    this.log.debug(MessageFormat.format("Skipping directory {0} due to cyclic symbolic link", subDirectoryPath));
+                }
+            }
+        }
+    }
+
+    protected void listDirectory(final Path directory, final TreeMap<String, Path> files, final TreeMap<String, Path> subDirectories)
+            throws IOException
+    {
+        final DirectoryStream<Path> stream = Files.newDirectoryStream(directory);
+        try
+        {
+            for (final Path entry : stream)
+            {
+                try
+                {
+                    // follows symbolic links just like DirectoryScanner
+                    final BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    if (attributes.isDirectory())
+                    {
+                        subDirectories.put(entry.getFileName().toString(), entry);
+                    }
+                    else if (attributes.isRegularFile())
+                    {
+                        files.put(entry.getFileName().toString(), entry);
+                    }
+                }
+                catch (final IOException ioex)
+                {
+                    // e.g. dangling symbolic links or inaccessible entries - DirectoryScanner silently skips those as well
+                    if (this.log.isDebugEnabled())
+                    {
+                        this.log.debug(MessageFormat.format("Skipping {0} during scan: {1}", entry, ioex.getMessage()));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+
+    protected Object getDirectoryKey(final Path directory)
+    {
+        Object key;
+        try
+        {
+            final BasicFileAttributes attributes = Files.readAttributes(directory, BasicFileAttributes.class);
+            key = attributes.fileKey();
+            if (key == null)
+            {
+                key = directory.toRealPath();
+            }
+        }
+        catch (final IOException ioex)
+        {
+            key = null;
+        }
+        return key;
+    }
+
+    protected List<String> loadExcludesFromJSHintIgnore(final Path jshintIgnoreFile, final String directoryPath)
+    {
+        final long startNanos = System.nanoTime();
+        final List<String> excludesFromFile = new ArrayList<>();
+        final List<String> excludes = new ArrayList<>();
+        try
+        {
+            for (final String line : Files.readAllLines(jshintIgnoreFile, StandardCharsets.UTF_8))
+            {
+                if (!StringUtils.isBlank(line))
+                {
+                    excludesFromFile.add(line);
+                    excludes.add(directoryPath.isEmpty() ? line : directoryPath + File.separator + line);
+                }
+            }
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error loading .jshintignore", ioex));
+        }
+
+        if (this.log.isDebugEnabled())
+        {
+            this.log.debug(MessageFormat.format("Loaded exclusion patterns {0} from {1}", excludesFromFile, jshintIgnoreFile));
+        }
+
+        if (this.metrics != null)
+        {
+            this.nonScanNanos += this.metrics.recordPhase(Phase.JSHINT_IGNORE, startNanos);
+        }
+
+        return excludes;
+    }
+
+    protected static boolean isExcluded(final String path, final List<ExclusionPatterns> exclusions)
+    {
+        boolean excluded = false;
+        for (int idx = 0, max = exclusions.size(); idx < max && !excluded; idx++)
+        {
+            excluded = exclusions.get(idx).filePatterns.matches(path, true);
+        }
+        return excluded;
+    }
+
+    protected static boolean isDirectoryExcluded(final String directoryPath, final List<ExclusionPatterns> exclusions)
+    {
+        boolean excluded = false;
+        for (int idx = 0, max = exclusions.size(); idx < max && !excluded; idx++)
+        {
+            excluded = exclusions.get(idx).directoryPatterns.matches(directoryPath, true);
+        }
+        return excluded;
+    }
+
+    // same normalisation as applied by DirectoryScanner
+    protected static String normalisePattern(final String pattern)
+    {
+        String normalisedPattern = pattern;
+        if (!pattern.startsWith(SelectorUtils.REGEX_HANDLER_PREFIX))
+        {
+            normalisedPattern = pattern.replace('/', File.separatorChar).replace('\\', File.separatorChar);
+            if (normalisedPattern.endsWith(File.separator))
+            {
+                normalisedPattern += "**";
+            }
+        }
+        return normalisedPattern;
+    }
+}
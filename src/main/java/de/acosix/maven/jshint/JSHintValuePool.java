@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Instances of this class deduplicate the textual values of findings, e.g. codes and reasons reported for large numbers of findings, so
+ * that all findings of an execution share a single instance of each distinct value. Unlike {@link String#intern() interning}, values are
+ * only retained for as long as the pool itself, i.e. a single execution of the plugin, and do not accumulate across the modules of a build.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintValuePool
+{
+
+    protected final ConcurrentMap<String, String> values = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves the shared instance of a value.
+     *
+     * @param value
+     *            the value to share - may be {@code null}
+     * @return the instance of the value shared by all findings using this pool
+     */
+    public String share(final String value)
+    {
+        String sharedValue = value;
+        if (value != null)
+        {
+            sharedValue = this.values.get(value);
+            if (sharedValue == null)
+            {
+                sharedValue = this.values.putIfAbsent(value, value);
+                if (sharedValue == null)
+                {
+                    sharedValue = value;
+                }
+            }
+        }
+        return sharedValue;
+    }
+
+    /**
+     * @return the number of distinct values held by this pool
+     */
+    public int size()
+    {
+        return this.values.size();
+    }
+}
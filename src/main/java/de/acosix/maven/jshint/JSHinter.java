@@ -38,4 +38,77 @@ public interface JSHinter
      * @return the errors found during validation
      */
     List<Error> executeJSHint(File baseDirectory, String path, String defaultJSHintConfig, boolean ignoreJSHintConfigFileOnPaths);
+
+    /**
+     * Executes JSHint validation on a batch of script files within a single invocation of the script engine
+     *
+     * @param baseDirectory
+     *            the base directory that contains the script files
+     * @param paths
+     *            the paths relative to the base directory that denote the script files
+     * @param defaultJSHintConfig
+     *            the default JSHint configuration in JSON format
+     * @param ignoreJSHintConfigFileOnPaths
+     *            {@code true} if {@code .jshintrc} files found on the path should be ignored, {@code false} otherwise
+     * @return the errors found during validation in the same order as the provided paths
+     */
+    List<List<Error>> executeJSHint(File baseDirectory, List<String> paths, String defaultJSHintConfig,
+            boolean ignoreJSHintConfigFileOnPaths);
+
+    /**
+     * Sets the cache of results of previous validations to use in subsequent calls to
+     * {@link #executeJSHint(File, String, String, boolean) executeJSHint}.
+     *
+     * @param resultCache
+     *            the result cache to use - may be {@code null} to always run JSHint
+     */
+    void setResultCache(JSHintResultCache resultCache);
+
+    /**
+     * Sets the prefetcher providing the contents of script files read ahead of their validation to use in subsequent calls to
+     * {@link #executeJSHint(File, String, String, boolean) executeJSHint}.
+     *
+     * @param sourcePrefetcher
+     *            the prefetcher to use - may be {@code null} to always read script files synchronously
+     */
+    void setSourcePrefetcher(JSHintSourcePrefetcher sourcePrefetcher);
+
+    /**
+     * Sets the index of custom JSHint configurations loaded from {@code .jshintrc} files to use in subsequent calls to
+     * {@link #executeJSHint(File, String, String, boolean) executeJSHint}. This allows multiple hinters to share configurations already
+     * resolved and avoids stale configurations when hinters are reused across executions.
+     *
+     * @param configIndex
+     *            the configuration index for the base directory of subsequent calls - may be {@code null} to let the hinter resolve
+     *            configurations on its own
+     */
+    void setConfigIndex(JSHintConfigIndex configIndex);
+
+    /**
+     * Sets whether the {@link Error#getEvidence() evidence} (the source line) of findings should be retained in the errors returned from
+     * subsequent calls to {@link #executeJSHint(File, String, String, boolean) executeJSHint}. Evidence is dropped by default to keep the
+     * memory footprint of large numbers of findings low.
+     *
+     * @param retainEvidence
+     *            {@code true} if evidence should be retained, {@code false} otherwise
+     */
+    void setRetainEvidence(boolean retainEvidence);
+
+    /**
+     * Sets the pool via which textual values of findings returned from subsequent calls to
+     * {@link #executeJSHint(File, String, String, boolean) executeJSHint} should be shared.
+     *
+     * @param valuePool
+     *            the pool to use - may be {@code null} to only share values between the findings of a single call
+     */
+    void setValuePool(JSHintValuePool valuePool);
+
+    /**
+     * Sets the metrics to which timings of subsequent calls to {@link #executeJSHint(File, String, String, boolean) executeJSHint} should
+     * be recorded.
+     *
+     * @param metrics
+     *            the metrics to record to - may be {@code null} to not record any timings
+     */
+    void setMetrics(JSHintMetrics metrics);
 }
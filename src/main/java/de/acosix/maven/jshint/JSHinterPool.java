@@ -0,0 +1,259 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.text.MessageFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * Instances of this class manage independent {@link JSHinter} instances for (concurrent) validation of script files. Idle hinters are
+ * shared across all executions of the plugin within the same build (i.e. all modules of a reactor) and keyed by the engine type and the
+ * identity of the JSHint script, so that warm engines with JSHint already loaded can be reused by any module using the same configuration.
+ * The number of hinters in use at the same time is limited by a cap shared across all pools by executions using the same concurrency
+ * limit. As no more hinters can be in use at the same time, at most that many idle hinters are retained for each key.
+ *
+ * Each pooled hinter writes its log output to a {@link BufferedLog buffer} so callers can decide when / in which order the output should be
+ * written to the actual log.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHinterPool
+{
+
+    /**
+     * Instances of this interface create the individual hinters managed by a pool.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static interface JSHinterFactory
+    {
+
+        /**
+         * Creates a new hinter instance.
+         *
+         * @param log
+         *            the log the new hinter should use
+         * @return the new hinter
+         */
+        JSHinter createHinter(Log log);
+    }
+
+    /**
+     * Instances of this class represent a hinter managed by a pool together with its buffered log.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    public static class PooledJSHinter
+    {
+
+        protected final JSHinter hinter;
+
+        protected final BufferedLog log;
+
+        protected PooledJSHinter(final JSHinter hinter, final BufferedLog log)
+        {
+            this.hinter = hinter;
+            this.log = log;
+        }
+
+        /**
+         * @return the hinter
+         */
+        public JSHinter getHinter()
+        {
+            return this.hinter;
+        }
+
+        /**
+         * @return the log
+         */
+        public BufferedLog getLog()
+        {
+            return this.log;
+        }
+    }
+
+    protected static final ConcurrentMap<String, ConcurrentLinkedQueue<PooledJSHinter>> SHARED_IDLE_HINTERS = new ConcurrentHashMap<>();
+
+    protected static final ConcurrentMap<Integer, Semaphore> SHARED_PERMITS = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves the pool shared across the current build for a specific engine type and JSHint script.
+     *
+     * @param key
+     *            the key identifying the engine type and JSHint script
+     * @param concurrencyLimit
+     *            the maximum number of hinters that may be in use at the same time across all shared pools retrieved with the same limit
+     * @param log
+     *            the log to use for reporting on pool management
+     * @return the shared pool
+     */
+    public static JSHinterPool getSharedPool(final String key, final int concurrencyLimit, final Log log)
+    {
+        if (StringUtils.isBlank(key))
+        {
+            throw new IllegalArgumentException("key not provided");
+        }
+
+        if (concurrencyLimit <= 0)
+        {
+            throw new IllegalArgumentException("concurrencyLimit must be a positive integer");
+        }
+
+        if (log == null)
+        {
+            throw new IllegalArgumentException("log not provided");
+        }
+
+        final Semaphore permits = getSharedPermits(concurrencyLimit, log);
+
+        ConcurrentLinkedQueue<PooledJSHinter> idleHinters = SHARED_IDLE_HINTERS.get(key);
+        if (idleHinters == null)
+        {
+            final ConcurrentLinkedQueue<PooledJSHinter> newIdleHinters = new ConcurrentLinkedQueue<>();
+            idleHinters = SHARED_IDLE_HINTERS.putIfAbsent(key, newIdleHinters);
+            if (idleHinters == null)
+            {
+                idleHinters = newIdleHinters;
+                if (log.isDebugEnabled())
+                {
+                    log.debug("Created shared JSHint engine pool for " + key);
+                }
+            }
+        }
+        else if (log.isDebugEnabled())
+        {
+            log.debug("Reusing shared JSHint engine pool for " + key);
+        }
+        return new JSHinterPool(permits, concurrencyLimit, idleHinters);
+    }
+
+    protected static Semaphore getSharedPermits(final int concurrencyLimit, final Log log)
+    {
+        final Integer key = Integer.valueOf(concurrencyLimit);
+        Semaphore permits = SHARED_PERMITS.get(key);
+        if (permits == null)
+        {
+            final Semaphore newPermits = new Semaphore(concurrencyLimit, true);
+            permits = SHARED_PERMITS.putIfAbsent(key, newPermits);
+            if (permits == null)
+            {
+                permits = newPermits;
+                if (log.isDebugEnabled())
+                {
+                    log.debug(MessageFormat.format("Limiting concurrent JSHint engines across build to {0}",
+                            String.valueOf(concurrencyLimit)));
+                }
+            }
+        }
+        return permits;
+    }
+
+    protected final Semaphore permits;
+
+    protected final int maxIdleHinters;
+
+    protected final ConcurrentLinkedQueue<PooledJSHinter> idleHinters;
+
+    protected JSHinterPool(final Semaphore permits, final int maxIdleHinters)
+    {
+        this(permits, maxIdleHinters, new ConcurrentLinkedQueue<PooledJSHinter>());
+    }
+
+    protected JSHinterPool(final Semaphore permits, final int maxIdleHinters, final ConcurrentLinkedQueue<PooledJSHinter> idleHinters)
+    {
+        this.permits = permits;
+        this.maxIdleHinters = maxIdleHinters;
+        this.idleHinters = idleHinters;
+    }
+
+    /**
+     * Retrieves an idle hinter from this pool, waiting for the concurrency limit to allow for another hinter to be used if necessary. If
+     * no idle hinter is available, a new one will be created.
+     *
+     * @param log
+     *            the log to which the hinter should delegate checks of enabled log levels while in use by the caller
+     * @param factory
+     *            the factory to use for creating a new hinter
+     * @return the hinter for exclusive use by the caller until it is {@link #release(PooledJSHinter) released}
+     * @throws InterruptedException
+     *             if the current thread was interrupted while waiting for a hinter
+     */
+    public PooledJSHinter acquire(final Log log, final JSHinterFactory factory) throws InterruptedException
+    {
+        if (log == null)
+        {
+            throw new IllegalArgumentException("log not provided");
+        }
+
+        if (factory == null)
+        {
+            throw new IllegalArgumentException("factory not provided");
+        }
+
+        this.permits.acquire();
+        try
+        {
+            PooledJSHinter hinter = this.idleHinters.poll();
+            if (hinter == null)
+            {
+                final BufferedLog hinterLog = new BufferedLog(log);
+                hinter = new PooledJSHinter(factory.createHinter(hinterLog), hinterLog);
+            }
+            else
+            {
+                // hinter may have last been used by an execution with a different log configuration
+                hinter.log.setDelegate(log);
+            }
+            return hinter;
+        }
+        catch (final RuntimeException re)
+        {
+            this.permits.release();
+            throw re;
+        }
+    }
+
+    /**
+     * Returns a previously acquired hinter to this pool. The hinter is discarded if the pool already retains the maximum number of idle
+     * hinters.
+     *
+     * @param hinter
+     *            the hinter to return
+     */
+    public void release(final PooledJSHinter hinter)
+    {
+        if (hinter == null)
+        {
+            throw new IllegalArgumentException("hinter not provided");
+        }
+
+        synchronized (this.idleHinters)
+        {
+            if (this.idleHinters.size() < this.maxIdleHinters)
+            {
+                this.idleHinters.offer(hinter);
+            }
+        }
+        this.permits.release();
+    }
+}
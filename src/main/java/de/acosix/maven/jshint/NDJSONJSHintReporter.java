@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Instances of this class write newline-delimited JSON (one JSON object per line) with the findings for each validated script file, e.g.
+ * <pre>
+ * {"file":"path/to/script.js","errors":[{"line":3,"column":5,"severity":"warning","code":"W117","message":"'x' is not defined."}]}
+ * </pre>
+ * Each line is flushed as soon as it has been written so that the report can be consumed (tailed) while validation is still running. The
+ * {@code evidence} (source line) of a finding is only included if it has been retained by the hinter.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class NDJSONJSHintReporter implements StreamingJSHintReporter
+{
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    protected Writer writer;
+
+    protected final StringBuilder lineBuilder = new StringBuilder(256);
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void generateReport(final Map<String, List<Error>> errorsByFile, final OutputStream os)
+    {
+        this.startReport(os);
+        for (final Entry<String, List<Error>> fileEntry : errorsByFile.entrySet())
+        {
+            this.reportFile(fileEntry.getKey(), fileEntry.getValue());
+        }
+        this.endReport();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void startReport(final OutputStream os)
+    {
+        if (this.writer != null)
+        {
+            throw new IllegalStateException("Report has already been started");
+        }
+        this.writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void reportFile(final String filePath, final List<Error> errors)
+    {
+        if (this.writer == null)
+        {
+            throw new IllegalStateException("Report has not been started");
+        }
+
+        final StringBuilder line = this.lineBuilder;
+        line.setLength(0);
+
+        line.append("{\"file\":");
+        appendString(line, filePath);
+        line.append(",\"errors\":[");
+        for (int idx = 0, max = errors.size(); idx < max; idx++)
+        {
+            final Error error = errors.get(idx);
+            if (idx > 0)
+            {
+                line.append(',');
+            }
+
+            // JSHint should only produce EXXX and WXXX error codes
+            final String code = error.getCode();
+            final String severity = code != null && code.startsWith("E") ? "error" : "warning";
+
+            line.append("{\"line\":").append(error.getLine());
+            line.append(",\"column\":").append(error.getCharacter());
+            line.append(",\"severity\":\"").append(severity).append('"');
+            line.append(",\"code\":");
+            appendString(line, code);
+            line.append(",\"message\":");
+            appendString(line, error.getReason());
+            if (error.getEvidence() != null)
+            {
+                line.append(",\"evidence\":");
+                appendString(line, error.getEvidence());
+            }
+            line.append('}');
+        }
+        line.append("]}\n");
+
+        try
+        {
+            this.writer.append(line);
+            this.writer.flush();
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error writing NDJSON report output", ioex));
+        }
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void endReport()
+    {
+        if (this.writer == null)
+        {
+            throw new IllegalStateException("Report has not been started");
+        }
+
+        try
+        {
+            this.writer.flush();
+        }
+        catch (final IOException ioex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error writing NDJSON report output", ioex));
+        }
+        finally
+        {
+            this.writer = null;
+        }
+    }
+
+    protected static void appendString(final StringBuilder builder, final String value)
+    {
+        if (value == null)
+        {
+            builder.append("null");
+        }
+        else
+        {
+            builder.append('"');
+            for (int idx = 0, max = value.length(); idx < max; idx++)
+            {
+                final char c = value.charAt(idx);
+                switch (c)
+                {
+                    case '"':
+                        builder.append("\\\"");
+                        break;
+                    case '\\':
+                        builder.append("\\\\");
+                        break;
+                    case '\n':
+                        builder.append("\\n");
+                        break;
+                    case '\r':
+                        builder.append("\\r");
+                        break;
+                    case '\t':
+                        builder.append("\\t");
+                        break;
+                    default:
+                        // also escape line / paragraph separators as some consumers treat them as line breaks
+                        if (c < 0x20 || c == '\u2028' || c == '\u2029')
+                        {
+                            builder.append("\\u").append(HEX_DIGITS[(c >> 12) & 0xF]).append(HEX_DIGITS[(c >> 8) & 0xF])
+                                    .append(HEX_DIGITS[(c >> 4) & 0xF]).append(HEX_DIGITS[c & 0xF]);
+                        }
+                        else
+                        {
+                            builder.append(c);
+                        }
+                }
+            }
+            builder.append('"');
+        }
+    }
+}
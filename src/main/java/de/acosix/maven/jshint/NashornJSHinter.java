@@ -16,33 +16,85 @@
 package de.acosix.maven.jshint;
 
 import java.io.File;
-import java.net.URL;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
+import de.acosix.maven.jshint.JSHintMetrics.Phase;
+
 /**
  * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
  */
 public class NashornJSHinter extends AbstractJSHinter
 {
 
-    protected final ScriptEngine nashornEngine = new ScriptEngineManager().getEngineByName("nashorn");
+    /**
+     * The name of the system property used by Nashorn to determine the directory of its persistent code cache. Nashorn does not provide an
+     * engine option for the directory, so it can only be configured JVM-wide, e.g. via {@code MAVEN_OPTS}.
+     */
+    protected static final String PERSISTENT_CODE_CACHE_PROPERTY = "nashorn.persistent.code.cache";
+
+    /**
+     * Nashorn shares compiled classes between all globals of the same engine, so hinters using the same engine options share one engine and
+     * each use their own global (engine scope bindings). This allows concurrent validations without each hinter compiling its own copy of
+     * JSHint.
+     */
+    protected static final Map<String, SharedEngine> SHARED_ENGINES = new HashMap<>();
+
+    /**
+     * Instances of this class hold an engine shared between hinters together with the runner script compiled for it.
+     *
+     * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+     */
+    protected static class SharedEngine
+    {
+
+        protected final ScriptEngine engine;
+
+        protected final CompiledScript runnerScript;
+
+        protected SharedEngine(final ScriptEngine engine, final CompiledScript runnerScript)
+        {
+            this.engine = engine;
+            this.runnerScript = runnerScript;
+        }
+    }
+
+    protected ScriptEngine nashornEngine;
 
-    protected final Bindings bindings = this.nashornEngine.createBindings();
+    protected Bindings bindings;
 
     protected final Object jshintScript;
 
+    protected final List<String> engineOptions = new ArrayList<>();
+
+    protected boolean persistentCodeCache = false;
+
     protected boolean jshintScriptLoaded = false;
 
+    protected CompiledScript runnerScript;
+
     public NashornJSHinter(final Log log, final String versionOrResourcePath, final boolean resourcePath)
     {
         super(log);
@@ -81,6 +133,35 @@ public class NashornJSHinter extends AbstractJSHinter
         this.jshintScript = jshintScriptFile;
     }
 
+    /**
+     * Sets the options (e.g. {@code --optimistic-types=false}) to use when creating the Nashorn engine. This must be called before the
+     * first validation is executed.
+     *
+     * @param engineOptions
+     *            the engine options to use
+     */
+    public void setEngineOptions(final List<String> engineOptions)
+    {
+        this.engineOptions.clear();
+        if (engineOptions != null)
+        {
+            this.engineOptions.addAll(engineOptions);
+        }
+    }
+
+    /**
+     * Enables the persistent code cache of Nashorn so the compiled form of JSHint can be reused across builds. Compiled scripts are stored
+     * in the directory set via the JVM-wide system property {@value #PERSISTENT_CODE_CACHE_PROPERTY}, which this class never changes. This
+     * must be called before the first validation is executed.
+     *
+     * @param persistentCodeCache
+     *            {@code true} if the persistent code cache should be used, {@code false} otherwise
+     */
+    public void setPersistentCodeCache(final boolean persistentCodeCache)
+    {
+        this.persistentCodeCache = persistentCodeCache;
+    }
+
     /**
      *
      * {@inheritDoc}
@@ -90,34 +171,110 @@ public class NashornJSHinter extends AbstractJSHinter
     {
         this.ensureEngineInitialisation();
 
-        final List<Error> errors = new ArrayList<>();
+        final List<Object> packedErrors = new ArrayList<>(1);
 
-        final List<String> sourceLines = this.readSourceLines(baseDirectory, path);
-        this.bindings.put("sourceLines", sourceLines);
-        this.bindings.put("errors", errors);
+        final String source = this.readSource(baseDirectory, path);
+        this.bindings.put("batch", Boolean.FALSE);
+        this.bindings.put("retainEvidence", Boolean.valueOf(this.retainEvidence));
+        this.bindings.put("source", source);
+        this.bindings.put("packedErrors", packedErrors);
         this.bindings.put("jshintConfig", effectiveJSHintConfigContent);
 
-        final URL runnerScript = NashornJSHinter.class.getResource("jshint-nashorn-runner.js");
-        this.bindings.put("runnerScript", runnerScript);
-
+        final JSHintEvent event = JSHintEvents.begin(JSHintEvents.Type.LINT);
         try
         {
-            this.nashornEngine.eval("load(runnerScript);", this.bindings);
+            final long lintStartNanos = System.nanoTime();
+            this.runnerScript.eval(this.bindings);
+            this.recordLint(baseDirectory, Collections.singletonList(path), lintStartNanos, null);
         }
         catch (final ScriptException sex)
         {
             throw new RuntimeException(new MojoExecutionException("Error running jshint validations", sex));
         }
 
+        final List<Error> errors = this.unpackErrors(packedErrors.get(0));
+        this.commitLintEvent(event, baseDirectory, Collections.singletonList(path), Collections.singletonList(errors));
         return errors;
     }
 
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected List<List<Error>> executeJSHintBatchImpl(final File baseDirectory, final List<String> paths,
+            final List<String> effectiveJSHintConfigContents)
+    {
+        this.ensureEngineInitialisation();
+
+        final List<Object> packedErrors = new ArrayList<>(paths.size());
+        final List<String> batchSources = new ArrayList<>(paths.size());
+        for (final String path : paths)
+        {
+            batchSources.add(this.readSource(baseDirectory, path));
+        }
+
+        this.bindings.put("batch", Boolean.TRUE);
+        this.bindings.put("retainEvidence", Boolean.valueOf(this.retainEvidence));
+        this.bindings.put("batchSources", batchSources);
+        this.bindings.put("batchJSHintConfigs", effectiveJSHintConfigContents);
+        this.bindings.put("packedErrors", packedErrors);
+        final JSHintLintTimer lintTimer = this.createLintTimer(paths.size());
+        this.bindings.put("lintTimer", lintTimer);
+
+        final JSHintEvent event = JSHintEvents.begin(JSHintEvents.Type.LINT);
+        try
+        {
+            final long lintStartNanos = System.nanoTime();
+            this.runnerScript.eval(this.bindings);
+            this.recordLint(baseDirectory, paths, lintStartNanos, lintTimer);
+        }
+        catch (final ScriptException sex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error running jshint validations", sex));
+        }
+        finally
+        {
+            // don't retain batch data in global
+            this.bindings.remove("batchSources");
+            this.bindings.remove("batchJSHintConfigs");
+            this.bindings.remove("lintTimer");
+        }
+
+        final List<List<Error>> batchErrors = new ArrayList<>(paths.size());
+        for (final Object packedFileErrors : packedErrors)
+        {
+            batchErrors.add(this.unpackErrors(packedFileErrors));
+        }
+        this.commitLintEvent(event, baseDirectory, paths, batchErrors);
+        return batchErrors;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getEngineName()
+    {
+        return "nashorn";
+    }
+
     protected void ensureEngineInitialisation()
     {
         if (!this.jshintScriptLoaded)
         {
             this.log.debug("Initialising Nashorn context for JSHint");
 
+            final JSHintEvent event = JSHintEvents.begin(JSHintEvents.Type.ENGINE_INITIALISATION);
+            final long startNanos = System.nanoTime();
+            final SharedEngine sharedEngine = this.getSharedEngine();
+            this.nashornEngine = sharedEngine.engine;
+            // the runner script is our wrapper for repeated execution
+            this.runnerScript = sharedEngine.runnerScript;
+            // each hinter uses its own global
+            this.bindings = this.nashornEngine.createBindings();
+
             this.bindings.put("jshintScript", this.jshintScript);
             try
             {
@@ -129,6 +286,112 @@ public class NashornJSHinter extends AbstractJSHinter
             }
 
             this.jshintScriptLoaded = true;
+            this.recordPhase(Phase.ENGINE_INITIALISATION, startNanos);
+            if (event != null)
+            {
+                event.setEngine(this.getEngineName());
+                event.commit();
+            }
+        }
+    }
+
+    protected SharedEngine getSharedEngine()
+    {
+        final String engineKey = this.engineOptions + "|" + this.persistentCodeCache;
+
+        SharedEngine sharedEngine;
+        synchronized (SHARED_ENGINES)
+        {
+            sharedEngine = SHARED_ENGINES.get(engineKey);
+            if (sharedEngine == null)
+            {
+                final ScriptEngine engine = this.createEngine();
+                final CompiledScript runnerScript = this.compileInternalScript(engine, "jshint-nashorn-runner.js");
+                sharedEngine = new SharedEngine(engine, runnerScript);
+                SHARED_ENGINES.put(engineKey, sharedEngine);
+            }
+            else
+            {
+                this.log.debug("Reusing shared Nashorn engine");
+            }
+        }
+        return sharedEngine;
+    }
+
+    protected ScriptEngine createEngine()
+    {
+        final List<String> options = new ArrayList<>(this.engineOptions);
+        if (this.persistentCodeCache)
+        {
+            options.add("--persistent-code-cache");
+        }
+
+        final ScriptEngine engine;
+        if (options.isEmpty())
+        {
+            engine = new ScriptEngineManager().getEngineByName("nashorn");
+        }
+        else
+        {
+            if (this.log.isDebugEnabled())
+            {
+                this.log.debug("Creating Nashorn engine with options " + options);
+            }
+
+            engine = this.createEngine(options);
+        }
+
+        if (engine == null)
+        {
+            throw new RuntimeException(new MojoExecutionException("Nashorn is not available"));
+        }
+
+        return engine;
+    }
+
+    protected ScriptEngine createEngine(final List<String> options)
+    {
+        ScriptEngine engine = null;
+        for (final ScriptEngineFactory factory : new ScriptEngineManager().getEngineFactories())
+        {
+            if (engine == null && factory.getNames().contains("nashorn"))
+            {
+                // use reflection as the factory class differs between JDK (jdk.nashorn) and standalone (org.openjdk.nashorn) Nashorn
+                try
+                {
+                    final Method getScriptEngine = factory.getClass().getMethod("getScriptEngine", String[].class);
+                    engine = (ScriptEngine) getScriptEngine.invoke(factory, new Object[] { options.toArray(new String[0]) });
+                }
+                catch (final NoSuchMethodException | IllegalAccessException ex)
+                {
+                    throw new RuntimeException(new MojoExecutionException("Nashorn engine does not support options", ex));
+                }
+                catch (final InvocationTargetException itex)
+                {
+                    throw new RuntimeException(new MojoExecutionException("Error creating Nashorn engine with options " + options,
+                            itex.getTargetException()));
+                }
+            }
+        }
+        return engine;
+    }
+
+    protected CompiledScript compileInternalScript(final ScriptEngine engine, final String scriptName)
+    {
+        final InputStream scriptInputStream = NashornJSHinter.class.getResourceAsStream(scriptName);
+        try
+        {
+            final Reader scriptReader = new InputStreamReader(scriptInputStream, StandardCharsets.UTF_8);
+            final CompiledScript script = ((Compilable) engine).compile(scriptReader);
+            return script;
+        }
+        catch (final ScriptException sex)
+        {
+            throw new RuntimeException(new MojoExecutionException("Error compiling " + scriptName, sex));
+        }
+        finally
+        {
+            IOUtil.close(scriptInputStream);
         }
     }
 }
@@ -15,16 +15,35 @@
  */
 package de.acosix.maven.jshint;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -36,6 +55,10 @@ import org.mozilla.javascript.NativeJavaObject;
 import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.WrappedException;
+import org.mozilla.javascript.serialize.ScriptableInputStream;
+import org.mozilla.javascript.serialize.ScriptableOutputStream;
+
+import de.acosix.maven.jshint.JSHintMetrics.Phase;
 
 /**
  * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
@@ -43,12 +66,28 @@ import org.mozilla.javascript.WrappedException;
 public class RhinoJSHinter extends AbstractJSHinter
 {
 
+    /**
+     * The package containing the bytecode classes of the embedded JSHint scripts precompiled during the build of this plugin, as configured
+     * in the build and provided via a filtered resource - may be {@code null} if this plugin has been built without that resource
+     */
+    protected static final String PRECOMPILED_SCRIPT_PACKAGE = loadBuildProperties().getProperty("precompiledScriptPackage");
+
+    /**
+     * Compiled scripts are immutable and can be executed concurrently in different contexts / scopes, so they are shared by all hinters to
+     * keep only one compiled copy of each script in memory.
+     */
+    protected static final ConcurrentMap<String, Script> SHARED_SCRIPTS = new ConcurrentHashMap<>();
+
     protected final Object jshintScript;
 
+    protected Class<? extends Script> precompiledJSHintScript;
+
     protected Scriptable scope;
 
     protected Script runnerScript;
 
+    protected File snapshotDirectory;
+
     public RhinoJSHinter(final Log log, final String versionOrResourcePath, final boolean resourcePath)
     {
         super(log);
@@ -68,6 +107,8 @@ public class RhinoJSHinter extends AbstractJSHinter
                 this.log.error("JSHint script could not be resolved for version " + versionOrResourcePath);
                 throw new RuntimeException(new MojoExecutionException("Error resolving " + scriptName));
             }
+
+            this.precompiledJSHintScript = this.lookupPrecompiledJSHintScript(versionOrResourcePath);
         }
         else
         {
@@ -87,6 +128,18 @@ public class RhinoJSHinter extends AbstractJSHinter
         this.jshintScript = jshintScriptFile;
     }
 
+    /**
+     * Enables warm-start of this hinter from a serialized snapshot of the JSHint top-level scope. Since only interpreted functions can be
+     * serialized, enabling snapshots forces Rhino to run in interpreted mode.
+     *
+     * @param snapshotDirectory
+     *            the directory in which to store / look up snapshots - may be {@code null} to always load JSHint from its script
+     */
+    public void setSnapshotDirectory(final File snapshotDirectory)
+    {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
     /**
      *
      * {@inheritDoc}
@@ -96,17 +149,92 @@ public class RhinoJSHinter extends AbstractJSHinter
     {
         this.ensureEngineInitialisation();
 
-        final List<Error> errors = new ArrayList<>();
+        final List<Object> packedErrors = new ArrayList<>(1);
+        JSHintEvent event = null;
         final Context cx = Context.enter();
         try
         {
-            final List<String> sourceLines = this.readSourceLines(baseDirectory, path);
-            final Scriptable sourceLinesArr = cx.newArray(this.scope, sourceLines.toArray(new Object[0]));
+            final String source = this.readSource(baseDirectory, path);
 
-            this.scope.put("errors", this.scope, errors);
-            this.scope.put("sourceLines", this.scope, sourceLinesArr);
+            this.scope.put("batch", this.scope, Boolean.FALSE);
+            this.scope.put("retainEvidence", this.scope, Boolean.valueOf(this.retainEvidence));
+            this.scope.put("packedErrors", this.scope, packedErrors);
+            this.scope.put("source", this.scope, source);
             this.scope.put("jshintConfig", this.scope, effectiveJSHintConfigContent);
 
+            event = JSHintEvents.begin(JSHintEvents.Type.LINT);
+            final long lintStartNanos = System.nanoTime();
+            this.execRunnerScript(cx);
+            this.recordLint(baseDirectory, Collections.singletonList(path), lintStartNanos, null);
+        }
+        finally
+        {
+            Context.exit();
+        }
+
+        final List<Error> errors = this.unpackErrors(packedErrors.get(0));
+        this.commitLintEvent(event, baseDirectory, Collections.singletonList(path), Collections.singletonList(errors));
+        return errors;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected List<List<Error>> executeJSHintBatchImpl(final File baseDirectory, final List<String> paths,
+            final List<String> effectiveJSHintConfigContents)
+    {
+        this.ensureEngineInitialisation();
+
+        final List<Object> packedErrors = new ArrayList<>(paths.size());
+        JSHintEvent event = null;
+        final Context cx = Context.enter();
+        try
+        {
+            final Object[] batchSources = new Object[paths.size()];
+            for (int idx = 0, max = paths.size(); idx < max; idx++)
+            {
+                batchSources[idx] = this.readSource(baseDirectory, paths.get(idx));
+            }
+
+            this.scope.put("batch", this.scope, Boolean.TRUE);
+            this.scope.put("retainEvidence", this.scope, Boolean.valueOf(this.retainEvidence));
+            this.scope.put("packedErrors", this.scope, packedErrors);
+            this.scope.put("batchSources", this.scope, cx.newArray(this.scope, batchSources));
+            this.scope.put("batchJSHintConfigs", this.scope, cx.newArray(this.scope, effectiveJSHintConfigContents.toArray(new Object[0])));
+            final JSHintLintTimer lintTimer = this.createLintTimer(paths.size());
+            // Rhino expects Java objects put into a scope to be wrapped - it logs a warning for each access otherwise
+            this.scope.put("lintTimer", this.scope, lintTimer != null ? Context.javaToJS(lintTimer, this.scope) : null);
+
+            event = JSHintEvents.begin(JSHintEvents.Type.LINT);
+            final long lintStartNanos = System.nanoTime();
+            this.execRunnerScript(cx);
+            this.recordLint(baseDirectory, paths, lintStartNanos, lintTimer);
+        }
+        finally
+        {
+            // don't retain batch data in scope
+            this.scope.delete("batchSources");
+            this.scope.delete("batchJSHintConfigs");
+            this.scope.delete("lintTimer");
+
+            Context.exit();
+        }
+
+        final List<List<Error>> batchErrors = new ArrayList<>(paths.size());
+        for (final Object packedFileErrors : packedErrors)
+        {
+            batchErrors.add(this.unpackErrors(packedFileErrors));
+        }
+        this.commitLintEvent(event, baseDirectory, paths, batchErrors);
+        return batchErrors;
+    }
+
+    protected void execRunnerScript(final Context cx)
+    {
+        try
+        {
             this.runnerScript.exec(cx, this.scope);
         }
         catch (final JavaScriptException jse)
@@ -133,11 +261,16 @@ public class RhinoJSHinter extends AbstractJSHinter
             }
             throw we;
         }
-        finally
-        {
-            Context.exit();
-        }
-        return errors;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getEngineName()
+    {
+        return "rhino";
     }
 
     protected void ensureEngineInitialisation()
@@ -146,17 +279,36 @@ public class RhinoJSHinter extends AbstractJSHinter
         {
             this.log.debug("Initialising Rhino context for JSHint");
 
+            final JSHintEvent event = JSHintEvents.begin(JSHintEvents.Type.ENGINE_INITIALISATION);
+            final long startNanos = System.nanoTime();
             final Context cx = Context.enter();
             try
             {
-                this.scope = cx.initStandardObjects(null, false);
+                if (this.snapshotDirectory != null)
+                {
+                    // only interpreted functions can be (de)serialized
+                    cx.setOptimizationLevel(-1);
+                    this.scope = cx.initStandardObjects(null, false);
+                    this.initialiseFromSnapshot(cx);
+                }
+                else
+                {
+                    this.scope = cx.initStandardObjects(null, false);
 
-                final Script jshintScript = this.compileJSHintScript(cx);
-                // execute once to actually load JSHINT
-                jshintScript.exec(cx, this.scope);
+                    final Script jshintScript = this.compileJSHintScript(cx);
+                    // execute once to actually load JSHINT
+                    jshintScript.exec(cx, this.scope);
+                }
 
                 // the runner script is our wrapper for repeated execution
                 this.runnerScript = this.compileInternalScriptScript(cx, "jshint-rhino-runner.js");
+
+                this.recordPhase(Phase.ENGINE_INITIALISATION, startNanos);
+                if (event != null)
+                {
+                    event.setEngine(this.getEngineName());
+                    event.commit();
+                }
             }
             catch (final IOException ioex)
             {
@@ -170,10 +322,276 @@ public class RhinoJSHinter extends AbstractJSHinter
         }
     }
 
+    protected void initialiseFromSnapshot(final Context cx) throws IOException
+    {
+        final File snapshotFile = new File(this.snapshotDirectory, "jshint-" + this.determineSnapshotKey(cx) + ".ser");
+
+        boolean restored = false;
+        if (snapshotFile.isFile() && snapshotFile.exists())
+        {
+            restored = this.restoreSnapshot(snapshotFile);
+        }
+
+        if (!restored)
+        {
+            final Set<Object> standardIds = new HashSet<>(Arrays.asList(this.scope.getIds()));
+
+            final Script jshintScript = this.compileJSHintScript(cx);
+            // execute once to actually load JSHINT
+            jshintScript.exec(cx, this.scope);
+
+            final Map<String, Object> jshintGlobals = new LinkedHashMap<>();
+            for (final Object id : this.scope.getIds())
+            {
+                if (id instanceof String && !standardIds.contains(id))
+                {
+                    jshintGlobals.put((String) id, this.scope.get((String) id, this.scope));
+                }
+            }
+            this.writeSnapshot(snapshotFile, jshintGlobals);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected boolean restoreSnapshot(final File snapshotFile)
+    {
+        boolean restored = false;
+
+        InputStream is = null;
+        ScriptableInputStream sis = null;
+        try
+        {
+            is = new BufferedInputStream(new FileInputStream(snapshotFile));
+            sis = new ScriptableInputStream(is, this.scope);
+
+            final Map<String, Object> jshintGlobals = (Map<String, Object>) sis.readObject();
+            for (final Entry<String, Object> globalEntry : jshintGlobals.entrySet())
+            {
+                this.scope.put(globalEntry.getKey(), this.scope, globalEntry.getValue());
+            }
+            restored = true;
+
+            if (this.log.isDebugEnabled())
+            {
+                this.log.debug("Restored JSHint from snapshot " + snapshotFile);
+            }
+        }
+        catch (final IOException | ClassNotFoundException | ClassCastException ex)
+        {
+            this.log.warn("Discarding unreadable JSHint snapshot " + snapshotFile, ex);
+        }
+        finally
+        {
+            IOUtil.close(sis);
+            IOUtil.close(is);
+        }
+
+        return restored;
+    }
+
+    protected void writeSnapshot(final File snapshotFile, final Map<String, Object> jshintGlobals)
+    {
+        if (!this.snapshotDirectory.exists())
+        {
+            this.snapshotDirectory.mkdirs();
+        }
+
+        OutputStream os = null;
+        ScriptableOutputStream sos = null;
+        try
+        {
+            // write to temporary file first so concurrent builds never see an incomplete snapshot
+            final File tempFile = File.createTempFile("jshint-", ".ser.tmp", this.snapshotDirectory);
+            try
+            {
+                os = new BufferedOutputStream(new FileOutputStream(tempFile));
+                sos = new ScriptableOutputStream(os, this.scope);
+                sos.writeObject(jshintGlobals);
+                sos.close();
+                sos = null;
+
+                Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                IOUtil.close(sos);
+                IOUtil.close(os);
+                tempFile.delete();
+            }
+
+            if (this.log.isDebugEnabled())
+            {
+                this.log.debug("Wrote JSHint snapshot " + snapshotFile);
+            }
+        }
+        catch (final IOException ioex)
+        {
+            // snapshot is only an optimisation
+            this.log.warn("Error writing JSHint snapshot " + snapshotFile, ioex);
+        }
+    }
+
+    protected String determineSnapshotKey(final Context cx) throws IOException
+    {
+        final MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (final NoSuchAlgorithmException nsaex)
+        {
+            throw new IllegalStateException("SHA-1 is not supported by the current JVM", nsaex);
+        }
+
+        // serialized form depends on the Rhino version as well as the actual script
+        digest.update(cx.getImplementationVersion().getBytes(StandardCharsets.UTF_8));
+
+        final InputStream scriptInputStream = this.openJSHintScript();
+        try
+        {
+            final byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = scriptInputStream.read(buffer)) != -1)
+            {
+                digest.update(buffer, 0, bytesRead);
+            }
+        }
+        finally
+        {
+            IOUtil.close(scriptInputStream);
+        }
+
+        final byte[] hash = digest.digest();
+        final StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (final byte b : hash)
+        {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    protected InputStream openJSHintScript() throws IOException
+    {
+        final InputStream scriptInputStream;
+        if (this.jshintScript instanceof URL)
+        {
+            scriptInputStream = ((URL) this.jshintScript).openStream();
+        }
+        else if (this.jshintScript instanceof File)
+        {
+            scriptInputStream = new FileInputStream((File) this.jshintScript);
+        }
+        else
+        {
+            throw new RuntimeException(new MojoExecutionException("JSHint script has not been resolved"));
+        }
+        return scriptInputStream;
+    }
+
+    protected static Properties loadBuildProperties()
+    {
+        final Properties properties = new Properties();
+        final InputStream propertiesInputStream = RhinoJSHinter.class.getResourceAsStream("build.properties");
+        if (propertiesInputStream != null)
+        {
+            try
+            {
+                properties.load(propertiesInputStream);
+            }
+            catch (final IOException ioex)
+            {
+                // without the properties no precompiled scripts can be looked up, which only affects performance
+            }
+            finally
+            {
+                IOUtil.close(propertiesInputStream);
+            }
+        }
+        return properties;
+    }
+
+    protected Class<? extends Script> lookupPrecompiledJSHintScript(final String version)
+    {
+        Class<? extends Script> precompiledScript = null;
+
+        if (StringUtils.isBlank(PRECOMPILED_SCRIPT_PACKAGE))
+        {
+            this.log.debug("No package of precompiled JSHint scripts configured");
+        }
+        else
+        {
+            final String className = PRECOMPILED_SCRIPT_PACKAGE + ".JSHint_" + version.replaceAll("[^a-zA-Z0-9]", "_") + "_Rhino";
+            try
+            {
+                final Class<?> scriptClass = Class.forName(className, false, RhinoJSHinter.class.getClassLoader());
+                if (Script.class.isAssignableFrom(scriptClass))
+                {
+                    precompiledScript = scriptClass.asSubclass(Script.class);
+                }
+            }
+            catch (final ClassNotFoundException cnfex)
+            {
+                if (this.log.isDebugEnabled())
+                {
+                    this.log.debug("No precompiled JSHint script available for version " + version);
+                }
+            }
+        }
+
+        return precompiledScript;
+    }
+
     protected Script compileJSHintScript(final Context cx) throws IOException
+    {
+        final String scriptKey;
+        if (this.jshintScript instanceof File)
+        {
+            final File jshintScriptFile = (File) this.jshintScript;
+            scriptKey = MessageFormat.format("file:{0}:{1}:{2}|opt:{3}", jshintScriptFile.getAbsolutePath(),
+                    String.valueOf(jshintScriptFile.lastModified()), String.valueOf(jshintScriptFile.length()),
+                    String.valueOf(cx.getOptimizationLevel()));
+        }
+        else
+        {
+            scriptKey = MessageFormat.format("{0}|opt:{1}", this.jshintScript, String.valueOf(cx.getOptimizationLevel()));
+        }
+
+        Script jshintScript = SHARED_SCRIPTS.get(scriptKey);
+        if (jshintScript == null)
+        {
+            jshintScript = this.doCompileJSHintScript(cx);
+            final Script existingScript = SHARED_SCRIPTS.putIfAbsent(scriptKey, jshintScript);
+            if (existingScript != null)
+            {
+                jshintScript = existingScript;
+            }
+        }
+        else
+        {
+            this.log.debug("Reusing compiled JSHint script");
+        }
+
+        return jshintScript;
+    }
+
+    protected Script doCompileJSHintScript(final Context cx) throws IOException
     {
         Script jshintScript;
-        if (this.jshintScript instanceof URL)
+        // precompiled script cannot be used in interpreted mode
+        if (this.precompiledJSHintScript != null && cx.getOptimizationLevel() >= 0)
+        {
+            this.log.debug("Using precompiled JSHint script");
+            try
+            {
+                jshintScript = this.precompiledJSHintScript.getDeclaredConstructor().newInstance();
+            }
+            catch (final ReflectiveOperationException ex)
+            {
+                throw new RuntimeException(new MojoExecutionException("Error instantiating precompiled JSHint script", ex));
+            }
+        }
+        else if (this.jshintScript instanceof URL)
         {
             final URL jshintScriptURL = (URL) this.jshintScript;
             final InputStream scriptInputStream = jshintScriptURL.openStream();
@@ -208,16 +626,28 @@ public class RhinoJSHinter extends AbstractJSHinter
 
     protected Script compileInternalScriptScript(final Context cx, final String scriptName) throws IOException
     {
-        final InputStream scriptInputStream = RhinoJSHinter.class.getResourceAsStream(scriptName);
-        try
-        {
-            final Script script = this.compileScript(cx, scriptName, scriptInputStream);
-            return script;
-        }
-        finally
+        final String scriptKey = MessageFormat.format("internal:{0}|opt:{1}", scriptName, String.valueOf(cx.getOptimizationLevel()));
+
+        Script script = SHARED_SCRIPTS.get(scriptKey);
+        if (script == null)
         {
-            IOUtil.close(scriptInputStream);
+            final InputStream scriptInputStream = RhinoJSHinter.class.getResourceAsStream(scriptName);
+            try
+            {
+                script = this.compileScript(cx, scriptName, scriptInputStream);
+            }
+            finally
+            {
+                IOUtil.close(scriptInputStream);
+            }
+
+            final Script existingScript = SHARED_SCRIPTS.putIfAbsent(scriptKey, script);
+            if (existingScript != null)
+            {
+                script = existingScript;
+            }
         }
+        return script;
     }
 
     protected Script compileScript(final Context cx, final String name, final InputStream is) throws IOException
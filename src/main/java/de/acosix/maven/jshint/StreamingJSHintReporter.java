@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Instances of this interface write a report incrementally while script files are being validated, so that the findings for each script
+ * file can be written and released as soon as its validation has finished instead of being held in memory until all script files have been
+ * validated. Instances are stateful and may only be used for one report at a time.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public interface StreamingJSHintReporter extends JSHintReporter
+{
+
+    /**
+     * Starts a new report on the provided output.
+     *
+     * @param os
+     *            the output to which to write
+     */
+    void startReport(OutputStream os);
+
+    /**
+     * Writes the findings for a single script file to the current report and flushes the output. This is called for every validated script
+     * file, including those without any findings.
+     *
+     * @param filePath
+     *            the path of the file for which the errors were reported
+     * @param errors
+     *            the JSHint errors reported for the file
+     */
+    void reportFile(String filePath, List<Error> errors);
+
+    /**
+     * Completes the current report and flushes the output. The output itself is not closed.
+     */
+    void endReport();
+}
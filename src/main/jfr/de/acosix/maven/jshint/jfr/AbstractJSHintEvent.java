@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.jfr;
+
+import de.acosix.maven.jshint.JSHintEvent;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base class for all JDK Flight Recorder events of the JSHint pipeline.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+@Category("JSHint")
+public abstract class AbstractJSHintEvent extends Event implements JSHintEvent
+{
+
+    @Label("Path")
+    protected String path;
+
+    @Label("Size")
+    @DataAmount
+    protected long size;
+
+    @Label("Engine")
+    protected String engine;
+
+    @Label("Error Count")
+    protected int errorCount;
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setPath(final String path)
+    {
+        this.path = path;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSize(final long size)
+    {
+        this.size = size;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setEngine(final String engine)
+    {
+        this.engine = engine;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setErrorCount(final int errorCount)
+    {
+        this.errorCount = errorCount;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.jfr;
+
+import de.acosix.maven.jshint.JSHintEvent;
+import de.acosix.maven.jshint.JSHintEvents.Factory;
+import de.acosix.maven.jshint.JSHintEvents.Type;
+import jdk.jfr.EventType;
+
+/**
+ * Instances of this class create JDK Flight Recorder events for the JSHint pipeline. This class is loaded reflectively by
+ * {@link de.acosix.maven.jshint.JSHintEvents} only if the {@code jdk.jfr} API is available.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JFRJSHintEventFactory implements Factory
+{
+
+    // indexed by ordinal of Type
+    private static final EventType[] EVENT_TYPES = new EventType[] { EventType.getEventType(EngineInitialisationEvent.class),
+            EventType.getEventType(ConfigResolutionEvent.class), EventType.getEventType(SourceReadEvent.class),
+            EventType.getEventType(LintEvent.class), EventType.getEventType(ReportEvent.class) };
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public JSHintEvent begin(final Type type)
+    {
+        // check before allocating so that event types not being recorded cost no more than this check
+        final AbstractJSHintEvent event;
+        if (!EVENT_TYPES[type.ordinal()].isEnabled())
+        {
+            event = null;
+        }
+        else
+        {
+            event = this.createEvent(type);
+            event.begin();
+        }
+        return event;
+    }
+
+    protected AbstractJSHintEvent createEvent(final Type type)
+    {
+        final AbstractJSHintEvent event;
+        switch (type)
+        {
+            case ENGINE_INITIALISATION:
+                event = new EngineInitialisationEvent();
+                break;
+            case CONFIG_RESOLUTION:
+                event = new ConfigResolutionEvent();
+                break;
+            case SOURCE_READ:
+                event = new SourceReadEvent();
+                break;
+            case LINT:
+                event = new LintEvent();
+                break;
+            case REPORT:
+                event = new ReportEvent();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported event type " + type);
+        }
+        return event;
+    }
+}
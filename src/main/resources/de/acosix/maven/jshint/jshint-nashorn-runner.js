@@ -18,36 +18,77 @@ if (typeof this.runJSHint !== 'function')
 {
     this.runJSHint = (function()
     {
-        var Error, RuntimeException, MojoExecutionException;
+        var RuntimeException, MojoExecutionException, packValue, configCache, lookupConfig;
 
-        Error = Java.type('de.acosix.maven.jshint.Error');
         RuntimeException = Java.type('java.lang.RuntimeException');
         MojoExecutionException = Java.type('org.apache.maven.plugin.MojoExecutionException');
 
-        return function runJSHint(sourceLines)
+        // packs a value as <length>:<value> or ~ for null / undefined - see AbstractJSHinter.unpackErrors
+        packValue = function packValue(parts, value)
         {
-            var data, eidx, error, config;
+            var str;
 
-            try
+            if (value === undefined || value === null)
             {
-                config = JSON.parse(jshintConfig);
+                parts.push('~');
             }
-            catch (e)
+            else
             {
-                if (e.nashornException !== undefined)
+                str = String(value);
+                parts.push(str.length, ':', str);
+            }
+        };
+
+        // parsed configs keyed by the config content string - comments have already been stripped when the config was loaded
+        // a project typically uses only a handful of distinct configs for all its script files
+        configCache = Object.create(null);
+
+        lookupConfig = function lookupConfig(jshintConfig)
+        {
+            var key, entry, config;
+
+            key = String(jshintConfig);
+            entry = configCache[key];
+            if (entry === undefined)
+            {
+                try
                 {
-                    throw new RuntimeException(new MojoExecutionException('Error parsing JSHint JSON config', e.nashornException));
+                    config = JSON.parse(key);
                 }
-                else
+                catch (e)
                 {
-                    throw new RuntimeException(new MojoExecutionException('Error parsing JSHint JSON config: ' + e.message));
+                    if (e.nashornException !== undefined)
+                    {
+                        throw new RuntimeException(new MojoExecutionException('Error parsing JSHint JSON config', e.nashornException));
+                    }
+                    else
+                    {
+                        throw new RuntimeException(new MojoExecutionException('Error parsing JSHint JSON config: ' + e.message));
+                    }
                 }
+
+                entry = {
+                    options : config,
+                    globals : config.globals || {}
+                };
+                configCache[key] = entry;
             }
 
-            JSHINT(Java.from(sourceLines), config, config.globals || {});
+            return entry;
+        };
+
+        return function runJSHint(source, jshintConfig)
+        {
+            var data, eidx, error, config, parts;
+
+            config = lookupConfig(jshintConfig);
+
+            JSHINT(source, config.options, config.globals);
 
             data = JSHINT.data();
+            parts = [];
 
+            // transfer all errors in one packed string instead of constructing Java objects for each
             if (Array.isArray(data.errors))
             {
                 for (eidx = 0; eidx < data.errors.length; eidx++)
@@ -55,12 +96,50 @@ if (typeof this.runJSHint !== 'function')
                     error = data.errors[eidx];
                     if (error !== null)
                     {
-                        errors.add(new Error(error.id, error.code, error.raw, error.evidence, error.reason, error.line, error.character));
+                        packValue(parts, error.id);
+                        packValue(parts, error.code);
+                        packValue(parts, error.raw);
+                        // evidence is dropped by the hinter unless it is retained - avoid transferring source lines
+                        packValue(parts, retainEvidence === true ? error.evidence : null);
+                        packValue(parts, error.reason);
+                        packValue(parts, error.line);
+                        packValue(parts, error.character);
                     }
                 }
             }
+
+            return parts.join('');
         };
     }());
 }
 
-runJSHint(sourceLines);
+if (typeof this.runJSHintBatch !== 'function')
+{
+    this.runJSHintBatch = function runJSHintBatch(batchSources, batchJSHintConfigs, packedErrors, lintTimer)
+    {
+        var idx;
+
+        for (idx = 0; idx < batchSources.size(); idx++)
+        {
+            // lintTimer (JSHintLintTimer) is only provided when metrics are collected
+            if (lintTimer)
+            {
+                lintTimer.startFile();
+            }
+            packedErrors.add(runJSHint(batchSources.get(idx), batchJSHintConfigs.get(idx)));
+            if (lintTimer)
+            {
+                lintTimer.endFile();
+            }
+        }
+    };
+}
+
+if (batch === true)
+{
+    runJSHintBatch(batchSources, batchJSHintConfigs, packedErrors, lintTimer);
+}
+else
+{
+    packedErrors.add(runJSHint(source, jshintConfig));
+}
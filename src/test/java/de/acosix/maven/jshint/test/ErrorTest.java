@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.acosix.maven.jshint.Error;
+import de.acosix.maven.jshint.JSHintValuePool;
+import de.acosix.maven.jshint.RhinoJSHinter;
+
+/**
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class ErrorTest
+{
+
+    /**
+     * Exposes the decoding of packed errors for inspection.
+     */
+    protected static class UnpackingRhinoJSHinter extends RhinoJSHinter
+    {
+
+        protected UnpackingRhinoJSHinter(final Log log)
+        {
+            super(log, "2.9.3", false);
+        }
+
+        @Override
+        protected List<Error> unpackErrors(final Object packedErrors)
+        {
+            return super.unpackErrors(packedErrors);
+        }
+    }
+
+    @Test
+    public void testUnpackErrors()
+    {
+        final UnpackingRhinoJSHinter hinter = new UnpackingRhinoJSHinter(new RecordingLog());
+        hinter.setRetainEvidence(true);
+
+        // values containing the separator, an empty value and null values
+        final String packed = pack("(error)", "W117", "'{a}' is not defined.", "    result = a + b;", "'result' is not defined.", "3", "5")
+                + pack("(error)", "E018", null, "", "Unexpected '~' in '1:2'.", "12", "1");
+        final List<Error> errors = hinter.unpackErrors(packed);
+
+        Assert.assertEquals(2, errors.size());
+        assertError(errors.get(0), "(error)", "W117", "'{a}' is not defined.", "    result = a + b;", "'result' is not defined.", 3, 5);
+        assertError(errors.get(1), "(error)", "E018", null, "", "Unexpected '~' in '1:2'.", 12, 1);
+
+        Assert.assertTrue(hinter.unpackErrors(null).isEmpty());
+        Assert.assertTrue(hinter.unpackErrors("").isEmpty());
+    }
+
+    @Test
+    public void testUnpackErrorsSkipsEvidence()
+    {
+        final UnpackingRhinoJSHinter hinter = new UnpackingRhinoJSHinter(new RecordingLog());
+
+        final String packed = pack("(error)", "W117", "'{a}' is not defined.", "    result = a + b;", "'result' is not defined.", "3", "5");
+        final List<Error> errors = hinter.unpackErrors(packed);
+
+        Assert.assertEquals(1, errors.size());
+        assertError(errors.get(0), "(error)", "W117", "'{a}' is not defined.", null, "'result' is not defined.", 3, 5);
+    }
+
+    @Test
+    public void testUnpackErrorsSharesValues()
+    {
+        final UnpackingRhinoJSHinter hinter = new UnpackingRhinoJSHinter(new RecordingLog());
+        final JSHintValuePool valuePool = new JSHintValuePool();
+        hinter.setValuePool(valuePool);
+
+        final String packed = pack("(error)", "W117", "'{a}' is not defined.", null, "'result' is not defined.", "3", "5");
+        final List<Error> errors = new ArrayList<>();
+        errors.addAll(hinter.unpackErrors(packed));
+        errors.addAll(hinter.unpackErrors(packed));
+
+        Assert.assertEquals(2, errors.size());
+        Assert.assertSame(errors.get(0).getCode(), errors.get(1).getCode());
+        Assert.assertSame(errors.get(0).getRaw(), errors.get(1).getRaw());
+        Assert.assertSame(errors.get(0).getReason(), errors.get(1).getReason());
+        Assert.assertEquals("Unexpected number of distinct values", 4, valuePool.size());
+
+        // without a pool, values are still shared within a single call
+        hinter.setValuePool(null);
+        final List<Error> unpooledErrors = hinter.unpackErrors(packed + packed);
+        Assert.assertSame(unpooledErrors.get(0).getCode(), unpooledErrors.get(1).getCode());
+        Assert.assertNotSame(errors.get(0).getCode(), unpooledErrors.get(0).getCode());
+    }
+
+    @Test
+    public void testPositionPacking()
+    {
+        final int[][] positions = new int[][] { { 0, 0 }, { 1, 1 }, { 3, Integer.MAX_VALUE }, { Integer.MAX_VALUE, 7 },
+                { Integer.MAX_VALUE, Integer.MAX_VALUE }, { 1000000, 65536 } };
+        for (final int[] position : positions)
+        {
+            final Error error = new Error("(error)", "W117", null, null, null, position[0], position[1]);
+            Assert.assertEquals(position[0], error.getLine());
+            Assert.assertEquals(position[1], error.getCharacter());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerialization() throws Exception
+    {
+        final JSHintValuePool valuePool = new JSHintValuePool();
+        final List<Error> errors = new ArrayList<>();
+        errors.add(new Error(valuePool.share("(error)"), valuePool.share("W117"), valuePool.share("'{a}' is not defined."), null,
+                valuePool.share("'x' is not defined."), Integer.MAX_VALUE, 12));
+        errors.add(new Error(valuePool.share("(error)"), valuePool.share("W117"), valuePool.share("'{a}' is not defined."),
+                "x = 1;", valuePool.share("'x' is not defined."), 1, 1));
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(errors);
+        oos.close();
+
+        final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        final List<Error> readErrors = (List<Error>) ois.readObject();
+        ois.close();
+
+        Assert.assertEquals(2, readErrors.size());
+        assertError(readErrors.get(0), "(error)", "W117", "'{a}' is not defined.", null, "'x' is not defined.", Integer.MAX_VALUE, 12);
+        assertError(readErrors.get(1), "(error)", "W117", "'{a}' is not defined.", "x = 1;", "'x' is not defined.", 1, 1);
+
+        // values shared before serialization remain shared after deserialization
+        Assert.assertSame(readErrors.get(0).getCode(), readErrors.get(1).getCode());
+        Assert.assertSame(readErrors.get(0).getReason(), readErrors.get(1).getReason());
+    }
+
+    protected static String pack(final String... values)
+    {
+        final StringBuilder sb = new StringBuilder();
+        for (final String value : values)
+        {
+            if (value == null)
+            {
+                sb.append('~');
+            }
+            else
+            {
+                sb.append(value.length()).append(':').append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    protected static void assertError(final Error error, final String id, final String code, final String raw, final String evidence,
+            final String reason, final int line, final int character)
+    {
+        Assert.assertEquals(id, error.getId());
+        Assert.assertEquals(code, error.getCode());
+        Assert.assertEquals(raw, error.getRaw());
+        Assert.assertEquals(evidence, error.getEvidence());
+        Assert.assertEquals(reason, error.getReason());
+        Assert.assertEquals(line, error.getLine());
+        Assert.assertEquals(character, error.getCharacter());
+    }
+}
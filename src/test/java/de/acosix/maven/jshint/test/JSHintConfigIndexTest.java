@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.acosix.maven.jshint.JSHintConfigIndex;
+
+/**
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintConfigIndexTest
+{
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStripComments()
+    {
+        Assert.assertEquals("{\n    \"a\": true \n}", JSHintConfigIndex.stripComments("{\n    \"a\": true // line comment\n}"));
+        Assert.assertEquals("{\n\n    \"a\": true\n}", JSHintConfigIndex.stripComments("{/* block\n comment */\n    \"a\": true\n}"));
+        Assert.assertEquals("{\"a\": 1}", JSHintConfigIndex.stripComments("{\"a\": /* inline */1}"));
+        Assert.assertEquals("{\"a\": 1}", JSHintConfigIndex.stripComments("{\"a\": 1}// unterminated at end"));
+    }
+
+    @Test
+    public void testStripCommentsRetainsStrings()
+    {
+        final String config = "{\"url\": \"http://example.org/*path*/\", \"quoted\": \"say \\\"//hi\\\"\", 'single': '/* x */'}";
+        Assert.assertEquals(config, JSHintConfigIndex.stripComments(config));
+    }
+
+    @Test
+    public void testIncrementalIndexOnlyConsidersAddedDirectories() throws Exception
+    {
+        final File baseDirectory = this.folder.getRoot();
+        final File subDirectory = new File(baseDirectory, "sub");
+        Assert.assertTrue(subDirectory.mkdir());
+        Files.write(new File(baseDirectory, ".jshintrc").toPath(), "{\"undef\": true}".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(subDirectory, ".jshintrc").toPath(), "{\"eqeqeq\": true}".getBytes(StandardCharsets.UTF_8));
+
+        final JSHintConfigIndex configIndex = JSHintConfigIndex.createIncremental(new RecordingLog(), baseDirectory);
+        configIndex.addConfigDirectory("sub");
+
+        Assert.assertNull("Config of directory not added to the index should not be used", configIndex.lookup("script.js"));
+        Assert.assertEquals("{\"eqeqeq\": true}", configIndex.lookup("sub" + File.separator + "script.js"));
+        Assert.assertEquals("{\"eqeqeq\": true}", configIndex.lookup("sub" + File.separator + "nested" + File.separator + "script.js"));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.acosix.maven.jshint.JSHintEvent;
+import de.acosix.maven.jshint.JSHintEvents;
+import de.acosix.maven.jshint.JSHintEvents.Factory;
+import de.acosix.maven.jshint.JSHintEvents.Type;
+
+/**
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintEventsTest
+{
+
+    /**
+     * Simple factory that never begins any event.
+     */
+    public static class NoopFactory implements Factory
+    {
+
+        /**
+         *
+         * {@inheritDoc}
+         */
+        @Override
+        public JSHintEvent begin(final Type type)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Factory that cannot be instantiated reflectively.
+     */
+    public static class ParameterisedFactory extends NoopFactory
+    {
+
+        public ParameterisedFactory(final String name)
+        {
+            super();
+        }
+    }
+
+    @Test
+    public void testLoadFactory()
+    {
+        Assert.assertTrue(JSHintEvents.loadFactory(NoopFactory.class.getName()) instanceof NoopFactory);
+    }
+
+    @Test
+    public void testLoadFactoryFallback()
+    {
+        Assert.assertNull("Absent class should not yield a factory",
+                JSHintEvents.loadFactory("de.acosix.maven.jshint.jfr.MissingJSHintEventFactory"));
+        Assert.assertNull("Class not implementing the factory interface should not yield a factory",
+                JSHintEvents.loadFactory(String.class.getName()));
+        Assert.assertNull("Class without default constructor should not yield a factory",
+                JSHintEvents.loadFactory(ParameterisedFactory.class.getName()));
+    }
+
+    @Test
+    public void testBeginWithoutRecording()
+    {
+        // events are only begun while a recording enables them, regardless of whether JFR is available
+        for (final Type type : Type.values())
+        {
+            Assert.assertNull(JSHintEvents.begin(type));
+        }
+    }
+}
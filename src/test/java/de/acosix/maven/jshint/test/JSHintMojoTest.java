@@ -15,7 +15,18 @@
  */
 package de.acosix.maven.jshint.test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.script.ScriptEngineManager;
 
 import org.apache.maven.plugin.Mojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -23,12 +34,16 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.plugin.testing.MojoRule;
+import org.codehaus.plexus.util.FileUtils;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import de.acosix.maven.jshint.Error;
 import de.acosix.maven.jshint.JSHintMojo;
+import de.acosix.maven.jshint.RhinoJSHinter;
 
 /**
  * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
@@ -36,6 +51,8 @@ import de.acosix.maven.jshint.JSHintMojo;
 public class JSHintMojoTest
 {
 
+    private static final String CODE_CACHE_PROPERTY = "nashorn.persistent.code.cache";
+
     // isDebugEnabled in base class yields false instead of debug printing output
     private static final Log FIXED_SYSTEM_STREAM_LOG = new SystemStreamLog()
     {
@@ -58,46 +75,56 @@ public class JSHintMojoTest
     public ExpectedException thrown = ExpectedException.none();
 
     @Test
-    public void testInvalidJSHintDefaultConfigWithCommentNashorn() throws Exception
+    public void testJSHintDefaultConfigWithCommentNashorn() throws Exception
     {
-        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
-        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
-
-        Assert.assertNotNull("JSHintMojo was not found", mojo);
-        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+        this.runDefaultConfigWithCommentTest(false);
+    }
 
-        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+    @Test
+    public void testJSHintDefaultConfigWithCommentRhino() throws Exception
+    {
+        this.runDefaultConfigWithCommentTest(true);
+    }
 
-        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
-        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-with-comments.json");
+    @Test
+    public void testInvalidJSHintDefaultConfigNashorn() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, FIXED_SYSTEM_STREAM_LOG);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-invalid.json");
         // need to exclude the locations with custom config overrides
-        jsHintMojo.setExcludes(Arrays.asList("test-jshintrc/*.js"));
+        jsHintMojo.setExcludes(Arrays.asList("test-jshintrc/*.js", "test-jshintrc-comments/*.js"));
 
         this.thrown.expect(MojoExecutionException.class);
         jsHintMojo.execute();
     }
 
     @Test
-    public void testInvalidJSHintDefaultConfigWithCommentRhino() throws Exception
+    public void testInvalidJSHintDefaultConfigRhino() throws Exception
     {
         final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
-        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
-
-        Assert.assertNotNull("JSHintMojo was not found", mojo);
-        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
-
-        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
-
-        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
-        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-with-comments.json");
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, FIXED_SYSTEM_STREAM_LOG);
         jsHintMojo.setPreferRhino(true);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-invalid.json");
         // need to exclude the locations with custom config overrides
-        jsHintMojo.setExcludes(Arrays.asList("test-jshintrc/*.js"));
+        jsHintMojo.setExcludes(Arrays.asList("test-jshintrc/*.js", "test-jshintrc-comments/*.js"));
 
         this.thrown.expect(MojoExecutionException.class);
         jsHintMojo.execute();
     }
 
+    @Test
+    public void testJSHintCommentedConfigFileNashorn() throws Exception
+    {
+        this.runCommentedConfigFileTest(false);
+    }
+
+    @Test
+    public void testJSHintCommentedConfigFileRhino() throws Exception
+    {
+        this.runCommentedConfigFileTest(true);
+    }
+
     @Test
     public void testJSHintIgnoreNashorn() throws Exception
     {
@@ -195,4 +222,1187 @@ public class JSHintMojoTest
         this.thrown.expect(MojoFailureException.class);
         jsHintMojo.execute();
     }
+
+    @Test
+    public void testJSHintInheritedConfigNashorn() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/**/*.js"));
+
+        // should not fail as long as .jshintrc is inherited by sub-directories
+        jsHintMojo.execute();
+
+        // should now fail since .jshintrc should not be respected
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+        this.thrown.expect(MojoFailureException.class);
+        jsHintMojo.execute();
+    }
+
+    @Test
+    public void testJSHintInheritedConfigRhino() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setPreferRhino(true);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/**/*.js"));
+
+        // should not fail as long as .jshintrc is inherited by sub-directories
+        jsHintMojo.execute();
+
+        // should now fail since .jshintrc should not be respected
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+        this.thrown.expect(MojoFailureException.class);
+        jsHintMojo.execute();
+    }
+
+    @Test
+    public void testJSHintDefaultExcludesNashorn() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "node_modules/**/*.js"));
+
+        // should not fail as long as node_modules is excluded by default
+        jsHintMojo.execute();
+
+        // should now fail since node_modules should be validated
+        jsHintMojo.setUseDefaultExcludes(false);
+        this.thrown.expect(MojoFailureException.class);
+        jsHintMojo.execute();
+    }
+
+    @Test
+    public void testJSHintDefaultExcludesRhino() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setPreferRhino(true);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "node_modules/**/*.js"));
+
+        // should not fail as long as node_modules is excluded by default
+        jsHintMojo.execute();
+
+        // should now fail since node_modules should be validated
+        jsHintMojo.setUseDefaultExcludes(false);
+        this.thrown.expect(MojoFailureException.class);
+        jsHintMojo.execute();
+    }
+
+    @Test
+    public void testJSHintParallelOrderNashorn() throws Exception
+    {
+        this.runParallelOrderTest(false);
+    }
+
+    @Test
+    public void testJSHintParallelOrderRhino() throws Exception
+    {
+        this.runParallelOrderTest(true);
+    }
+
+    @Test
+    public void testJSHintResultCacheNashorn() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setUseResultCache(true);
+        jsHintMojo.setResultCacheFile("jshint-result-cache-nashorn.ser");
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+
+        // first run fails and caches the errors
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("JSHint errors should have been found");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+
+        // should still fail since cached errors should be replayed
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("Cached JSHint errors should have been reported");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+
+        // should not fail as effective config changes and cached errors no longer apply
+        jsHintMojo.setIgnoreJSHintConfigFiles(false);
+        jsHintMojo.execute();
+    }
+
+    @Test
+    public void testJSHintResultCacheRhino() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setPreferRhino(true);
+        jsHintMojo.setUseResultCache(true);
+        jsHintMojo.setResultCacheFile("jshint-result-cache-rhino.ser");
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+
+        // first run fails and caches the errors
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("JSHint errors should have been found");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+
+        // should still fail since cached errors should be replayed
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("Cached JSHint errors should have been reported");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+
+        // should not fail as effective config changes and cached errors no longer apply
+        jsHintMojo.setIgnoreJSHintConfigFiles(false);
+        jsHintMojo.execute();
+    }
+
+    @Test
+    public void testJSHintInlineConfigRhinoSnapshot() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final File snapshotDirectory = new File(projectStub.getBuild().getDirectory(), "jshint-snapshots");
+        if (snapshotDirectory.exists())
+        {
+            FileUtils.deleteDirectory(snapshotDirectory);
+        }
+
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, FIXED_SYSTEM_STREAM_LOG);
+        jsHintMojo.setPreferRhino(true);
+        jsHintMojo.setUseRhinoSnapshot(true);
+        jsHintMojo.setRhinoSnapshotDirectory(snapshotDirectory);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+
+        // should not fail as long as .jshintrc is respected
+        jsHintMojo.execute();
+
+        final File[] snapshotFiles = snapshotDirectory.listFiles();
+        Assert.assertNotNull("Snapshot directory was not created", snapshotFiles);
+        Assert.assertEquals("Snapshot was not written", 1, snapshotFiles.length);
+        Assert.assertTrue("Unexpected snapshot file " + snapshotFiles[0].getName(),
+                snapshotFiles[0].getName().matches("jshint-[0-9a-f]+\\.ser"));
+
+        // a new engine (as in the next build) should be restored from the snapshot and produce the same results as one loaded from script
+        final File sourceDirectory = new File(projectStub.getBasedir(), "src/main");
+        final String config = FileUtils.fileRead(new File(projectStub.getBasedir(), "jshint.config-acosix-default.json"),
+                StandardCharsets.UTF_8.name());
+
+        final RecordingLog snapshotLog = new RecordingLog();
+        final RhinoJSHinter snapshotHinter = new RhinoJSHinter(snapshotLog, "2.9.3", false);
+        snapshotHinter.setSnapshotDirectory(snapshotDirectory);
+        final List<Error> snapshotErrors = snapshotHinter.executeJSHint(sourceDirectory, "test-jshintrc/simple-undeclared-var.js", config,
+                true);
+        Assert.assertTrue("Engine was not restored from snapshot",
+                snapshotLog.getLines("debug").contains("Restored JSHint from snapshot " + snapshotFiles[0]));
+
+        final RhinoJSHinter scriptHinter = new RhinoJSHinter(new RecordingLog(), "2.9.3", false);
+        final List<Error> scriptErrors = scriptHinter.executeJSHint(sourceDirectory, "test-jshintrc/simple-undeclared-var.js", config,
+                true);
+        Assert.assertFalse("Expected JSHint errors were not found", scriptErrors.isEmpty());
+        Assert.assertEquals("Restored engine produced different results", scriptErrors.size(), snapshotErrors.size());
+        for (int idx = 0; idx < scriptErrors.size(); idx++)
+        {
+            Assert.assertEquals(scriptErrors.get(idx).getCode(), snapshotErrors.get(idx).getCode());
+            Assert.assertEquals(scriptErrors.get(idx).getLine(), snapshotErrors.get(idx).getLine());
+            Assert.assertEquals(scriptErrors.get(idx).getCharacter(), snapshotErrors.get(idx).getCharacter());
+        }
+    }
+
+    @Test
+    public void testJSHintNashornCodeCacheDirectoryMismatch() throws Exception
+    {
+        Assume.assumeTrue("Nashorn is not available", new ScriptEngineManager().getEngineByName("nashorn") != null);
+
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final File buildDirectory = new File(projectStub.getBuild().getDirectory());
+
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, new RecordingLog());
+        jsHintMojo.setNashornPersistentCodeCache(true);
+        jsHintMojo.setNashornCodeCacheDirectory(new File(buildDirectory, "nashorn-code-cache-configured"));
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+
+        final String previousCodeCacheDirectory = System.getProperty(CODE_CACHE_PROPERTY);
+        System.setProperty(CODE_CACHE_PROPERTY, new File(buildDirectory, "nashorn-code-cache-jvm").getAbsolutePath());
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("Differing Nashorn code cache directory should have been refused");
+        }
+        catch (final MojoExecutionException mee)
+        {
+            Assert.assertTrue(mee.getMessage().contains("cannot be changed at runtime"));
+            Assert.assertEquals("System property should not have been changed",
+                    new File(buildDirectory, "nashorn-code-cache-jvm").getAbsolutePath(), System.getProperty(CODE_CACHE_PROPERTY));
+        }
+        finally
+        {
+            restoreSystemProperty(CODE_CACHE_PROPERTY, previousCodeCacheDirectory);
+        }
+    }
+
+    @Test
+    public void testJSHintNashornCodeCacheWithoutSystemProperty() throws Exception
+    {
+        Assume.assumeTrue("Nashorn is not available", new ScriptEngineManager().getEngineByName("nashorn") != null);
+        Assume.assumeTrue("Code cache directory is set JVM-wide", System.getProperty(CODE_CACHE_PROPERTY) == null);
+
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+
+        final RecordingLog log = new RecordingLog();
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, log);
+        jsHintMojo.setNashornPersistentCodeCache(true);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+        jsHintMojo.execute();
+
+        boolean warned = false;
+        for (final String line : log.getLines("warn"))
+        {
+            warned = warned || line.startsWith("Not using the Nashorn persistent code cache");
+        }
+        Assert.assertTrue("Missing code cache system property was not reported", warned);
+        Assert.assertNull("System property should not have been set", System.getProperty(CODE_CACHE_PROPERTY));
+    }
+
+    @Test
+    public void testJSHintInlineConfigNashornOptions() throws Exception
+    {
+        // Nashorn options would silently be ignored if the mojo falls back to Rhino
+        Assume.assumeTrue("Nashorn is not available", new ScriptEngineManager().getEngineByName("nashorn") != null);
+
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final File codeCacheDirectory = new File(projectStub.getBuild().getDirectory(), "nashorn-code-cache");
+        if (codeCacheDirectory.exists())
+        {
+            FileUtils.deleteDirectory(codeCacheDirectory);
+        }
+
+        final RecordingLog log = new RecordingLog();
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, log);
+        jsHintMojo.setNashornPersistentCodeCache(true);
+        jsHintMojo.setNashornCodeCacheDirectory(codeCacheDirectory);
+        jsHintMojo.setNashornOptimisticTypes(Boolean.FALSE);
+        jsHintMojo.setNashornLazyCompilation(Boolean.TRUE);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+
+        // code cache directory can only be set JVM-wide, as it would be via MAVEN_OPTS
+        final String previousCodeCacheDirectory = System.getProperty(CODE_CACHE_PROPERTY);
+        System.setProperty(CODE_CACHE_PROPERTY, codeCacheDirectory.getAbsolutePath());
+        try
+        {
+            // should not fail as long as .jshintrc is respected
+            jsHintMojo.execute();
+        }
+        finally
+        {
+            restoreSystemProperty(CODE_CACHE_PROPERTY, previousCodeCacheDirectory);
+        }
+
+        boolean nashornPoolUsed = false;
+        for (final String line : log.getLines("debug"))
+        {
+            nashornPoolUsed = nashornPoolUsed || (line.contains("shared JSHint engine pool for nashorn|")
+                    && line.contains("|options:[--optimistic-types=false, --lazy-compilation=true]"));
+        }
+        Assert.assertTrue("Nashorn engine with configured options was not used", nashornPoolUsed);
+
+        final String[] codeCacheFiles = codeCacheDirectory.list();
+        Assert.assertNotNull("Code cache directory was not created", codeCacheFiles);
+        Assert.assertTrue("Code cache was not written", codeCacheFiles.length > 0);
+
+        // should now fail since .jshintrc should not be respected
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+        this.thrown.expect(MojoFailureException.class);
+        jsHintMojo.execute();
+    }
+
+    @Test
+    public void testJSHintInlineConfigBatchNashorn() throws Exception
+    {
+        this.runBatchTest(false);
+    }
+
+    @Test
+    public void testJSHintInlineConfigBatchRhino() throws Exception
+    {
+        this.runBatchTest(true);
+    }
+
+    @Test
+    public void testJSHintInlineConfigBoundedScanQueueNashorn() throws Exception
+    {
+        this.runBoundedScanQueueTest(false);
+    }
+
+    @Test
+    public void testJSHintInlineConfigBoundedScanQueueRhino() throws Exception
+    {
+        this.runBoundedScanQueueTest(true);
+    }
+
+    @Test
+    public void testJSHintStreamingCheckstyleReportNashorn() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setStreamReports(true);
+        jsHintMojo.setCheckstyleReportFile("jshint-checkstyle-stream-nashorn.xml");
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("JSHint errors should have been found");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+
+        final File reportFile = new File(projectStub.getBuild().getDirectory(), "jshint-checkstyle-stream-nashorn.xml");
+        Assert.assertTrue("Checkstyle report was not written", reportFile.isFile());
+
+        final String report = FileUtils.fileRead(reportFile, StandardCharsets.UTF_8.name());
+        Assert.assertTrue("Checkstyle report does not contain any file", report.contains("<file name="));
+        Assert.assertTrue("Checkstyle report was not completed", report.trim().endsWith("</checkstyle>"));
+    }
+
+    @Test
+    public void testJSHintStreamingCheckstyleReportRhino() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setPreferRhino(true);
+        jsHintMojo.setStreamReports(true);
+        jsHintMojo.setCheckstyleReportFile("jshint-checkstyle-stream-rhino.xml");
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("JSHint errors should have been found");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+
+        final File reportFile = new File(projectStub.getBuild().getDirectory(), "jshint-checkstyle-stream-rhino.xml");
+        Assert.assertTrue("Checkstyle report was not written", reportFile.isFile());
+
+        final String report = FileUtils.fileRead(reportFile, StandardCharsets.UTF_8.name());
+        Assert.assertTrue("Checkstyle report does not contain any file", report.contains("<file name="));
+        Assert.assertTrue("Checkstyle report was not completed", report.trim().endsWith("</checkstyle>"));
+    }
+
+    @Test
+    public void testJSHintStreamingReportsOnFailureNashorn() throws Exception
+    {
+        this.runStreamingReportsOnFailureTest(false);
+    }
+
+    @Test
+    public void testJSHintStreamingReportsOnFailureRhino() throws Exception
+    {
+        this.runStreamingReportsOnFailureTest(true);
+    }
+
+    @Test
+    public void testJSHintNDJSONReportNashorn() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setNdjsonReportFile("jshint-results-nashorn.ndjson");
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("JSHint errors should have been found");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+
+        final File reportFile = new File(projectStub.getBuild().getDirectory(), "jshint-results-nashorn.ndjson");
+        Assert.assertTrue("NDJSON report was not written", reportFile.isFile());
+
+        final String[] lines = FileUtils.fileRead(reportFile, StandardCharsets.UTF_8.name()).split("\\n");
+        Assert.assertTrue("NDJSON report should contain a line for every validated file", lines.length > 1);
+
+        boolean undeclaredVarReported = false;
+        for (final String line : lines)
+        {
+            Assert.assertTrue("NDJSON report line is not a file result: " + line, line.startsWith("{\"file\":"));
+            undeclaredVarReported = undeclaredVarReported || line.contains("\"code\":\"W117\"");
+        }
+        Assert.assertTrue("NDJSON report does not contain the expected finding", undeclaredVarReported);
+    }
+
+    @Test
+    public void testJSHintNDJSONReportRhino() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setPreferRhino(true);
+        jsHintMojo.setNdjsonReportFile("jshint-results-rhino.ndjson");
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("JSHint errors should have been found");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+
+        final File reportFile = new File(projectStub.getBuild().getDirectory(), "jshint-results-rhino.ndjson");
+        Assert.assertTrue("NDJSON report was not written", reportFile.isFile());
+
+        final String[] lines = FileUtils.fileRead(reportFile, StandardCharsets.UTF_8.name()).split("\\n");
+        Assert.assertTrue("NDJSON report should contain a line for every validated file", lines.length > 1);
+
+        boolean undeclaredVarReported = false;
+        for (final String line : lines)
+        {
+            Assert.assertTrue("NDJSON report line is not a file result: " + line, line.startsWith("{\"file\":"));
+            undeclaredVarReported = undeclaredVarReported || line.contains("\"code\":\"W117\"");
+        }
+        Assert.assertTrue("NDJSON report does not contain the expected finding", undeclaredVarReported);
+    }
+
+    @Test
+    public void testJSHintMetricsNashorn() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setCollectMetrics(true);
+        jsHintMojo.setMetricsFile("jshint-metrics-nashorn.json");
+        jsHintMojo.setSlowestFilesCount(1);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+
+        jsHintMojo.execute();
+
+        final File metricsFile = new File(projectStub.getBuild().getDirectory(), "jshint-metrics-nashorn.json");
+        Assert.assertTrue("Metrics file was not written", metricsFile.isFile());
+
+        final String metrics = FileUtils.fileRead(metricsFile, StandardCharsets.UTF_8.name());
+        Assert.assertTrue("Metrics do not contain the number of validated files", metrics.contains("\"filesLinted\": 2"));
+        Assert.assertTrue("Metrics do not contain the lint phase", metrics.contains("\"lint\": {"));
+        Assert.assertTrue("Metrics do not contain the slowest file", metrics.contains("\"slowestFiles\": [\n    {\"path\": "));
+    }
+
+    @Test
+    public void testJSHintMetricsRhino() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(FIXED_SYSTEM_STREAM_LOG);
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setPreferRhino(true);
+        jsHintMojo.setCollectMetrics(true);
+        jsHintMojo.setMetricsFile("jshint-metrics-rhino.json");
+        jsHintMojo.setSlowestFilesCount(1);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+
+        jsHintMojo.execute();
+
+        final File metricsFile = new File(projectStub.getBuild().getDirectory(), "jshint-metrics-rhino.json");
+        Assert.assertTrue("Metrics file was not written", metricsFile.isFile());
+
+        final String metrics = FileUtils.fileRead(metricsFile, StandardCharsets.UTF_8.name());
+        Assert.assertTrue("Metrics do not contain the number of validated files", metrics.contains("\"filesLinted\": 2"));
+        Assert.assertTrue("Metrics do not contain the lint phase", metrics.contains("\"lint\": {"));
+        Assert.assertTrue("Metrics do not contain the slowest file", metrics.contains("\"slowestFiles\": [\n    {\"path\": "));
+    }
+
+    @Test
+    public void testJSHintBatchMetricsNashorn() throws Exception
+    {
+        this.runBatchMetricsTest(false);
+    }
+
+    @Test
+    public void testJSHintBatchMetricsRhino() throws Exception
+    {
+        this.runBatchMetricsTest(true);
+    }
+
+    @Test
+    public void testJSHintReadAheadNashorn() throws Exception
+    {
+        this.runReadAheadTest(false);
+    }
+
+    @Test
+    public void testJSHintReadAheadRhino() throws Exception
+    {
+        this.runReadAheadTest(true);
+    }
+
+    @Test
+    public void testJSHintRetainEvidenceNashorn() throws Exception
+    {
+        this.runRetainEvidenceTest(false);
+    }
+
+    @Test
+    public void testJSHintRetainEvidenceRhino() throws Exception
+    {
+        this.runRetainEvidenceTest(true);
+    }
+
+    @Test
+    public void testJSHintConcurrentExecutionsSharePoolRhino() throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final int executionCount = 4;
+
+        // simulate modules of a parallel build executing the (thread-safe) mojo at the same time
+        final List<RecordingLog> logs = new ArrayList<>();
+        final List<Callable<Void>> executions = new ArrayList<>();
+        for (int executionIdx = 0; executionIdx < executionCount; executionIdx++)
+        {
+            final RecordingLog log = new RecordingLog();
+            final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, log);
+            jsHintMojo.setPreferRhino(true);
+            jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+            jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+            logs.add(log);
+            executions.add(new Callable<Void>()
+            {
+
+                /**
+                 *
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Void call() throws Exception
+                {
+                    jsHintMojo.execute();
+                    return null;
+                }
+            });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(executionCount);
+        try
+        {
+            for (final Future<Void> result : executor.invokeAll(executions))
+            {
+                result.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        int poolsCreated = 0;
+        int poolsReused = 0;
+        for (final RecordingLog log : logs)
+        {
+            for (final String line : log.getLines("debug"))
+            {
+                poolsCreated += line.startsWith("Created shared JSHint engine pool for rhino|") ? 1 : 0;
+                poolsReused += line.startsWith("Reusing shared JSHint engine pool for rhino|") ? 1 : 0;
+            }
+            Assert.assertTrue("Not all script files were validated",
+                    log.getLines().contains("[info] No JSHint errors found in 2 source files"));
+        }
+        Assert.assertTrue("Engine pool was created more than once", poolsCreated <= 1);
+        Assert.assertEquals("Engine pool was not shared by all executions", executionCount, poolsCreated + poolsReused);
+    }
+
+    protected void runDefaultConfigWithCommentTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final RecordingLog log = new RecordingLog();
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, log);
+        jsHintMojo.setPreferRhino(preferRhino);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-with-comments.json");
+        // need to exclude the locations with custom config overrides
+        jsHintMojo.setExcludes(Arrays.asList("test-jshintrc/*.js", "test-jshintrc-comments/*.js"));
+
+        // comments are stripped when the config is loaded, as by the JSHint command line interface
+        jsHintMojo.execute();
+
+        String loadedConfig = null;
+        for (final String line : log.getLines("debug"))
+        {
+            if (line.startsWith("Loaded default JSHint config: "))
+            {
+                loadedConfig = line.substring("Loaded default JSHint config: ".length());
+            }
+        }
+        Assert.assertNotNull("Default config was not loaded", loadedConfig);
+        Assert.assertTrue("Default config lost its options", loadedConfig.contains("\"bitwise\" : true"));
+        Assert.assertFalse("Comments were not stripped from default config", loadedConfig.contains("//"));
+    }
+
+    protected void runCommentedConfigFileTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, FIXED_SYSTEM_STREAM_LOG);
+        jsHintMojo.setPreferRhino(preferRhino);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("test-jshintrc-comments/*.js"));
+
+        // should not fail as long as the commented .jshintrc is respected
+        jsHintMojo.execute();
+
+        // should now fail since .jshintrc should not be respected
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+        executeExpectingFailure(jsHintMojo);
+    }
+
+    protected void runBoundedScanQueueTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final RecordingLog log = new RecordingLog();
+
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, log);
+        jsHintMojo.setPreferRhino(preferRhino);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/**/*.js"));
+        jsHintMojo.setParallel(true);
+        jsHintMojo.setThreadCount(2);
+        jsHintMojo.setScanQueueCapacity(1);
+
+        // should not fail as long as .jshintrc is respected, even if found by the scan while validation is already running
+        jsHintMojo.execute();
+        Assert.assertTrue("Not all script files were validated", log.getLines("info").contains("No JSHint errors found in 3 source files"));
+
+        // should now fail since .jshintrc should not be respected
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+        executeExpectingFailure(jsHintMojo);
+
+        // a scan blocked on the queue most of the time must still find all script files in the same order as a scan never blocked
+        final File buildDirectory = new File(projectStub.getBuild().getDirectory());
+        final File sourceDirectory = new File(buildDirectory, "bounded-scan-queue-sources");
+        final int scriptFileCount = 24;
+        generateScriptFiles(sourceDirectory, scriptFileCount);
+
+        log.clear();
+        final JSHintMojo nonBlockingMojo = this.lookupJSHintMojo(projectStub, log);
+        nonBlockingMojo.setPreferRhino(preferRhino);
+        nonBlockingMojo.setSourceDirectory(sourceDirectory);
+        nonBlockingMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        nonBlockingMojo.setScanQueueCapacity(scriptFileCount + 1);
+        executeExpectingFailure(nonBlockingMojo);
+        final List<String> nonBlockingOutput = getValidationOutput(log);
+
+        log.clear();
+        final JSHintMojo boundedMojo = this.lookupJSHintMojo(projectStub, log);
+        boundedMojo.setPreferRhino(preferRhino);
+        boundedMojo.setSourceDirectory(sourceDirectory);
+        boundedMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        boundedMojo.setParallel(true);
+        boundedMojo.setThreadCount(2);
+        boundedMojo.setScanQueueCapacity(1);
+        executeExpectingFailure(boundedMojo);
+        final List<String> boundedOutput = getValidationOutput(log);
+
+        int filesValidated = 0;
+        for (final String line : boundedOutput)
+        {
+            filesValidated += line.startsWith("[info] Executing JSHint on") ? 1 : 0;
+        }
+        Assert.assertEquals("Not all script files were validated", scriptFileCount, filesValidated);
+        Assert.assertEquals("Log output with minimal scan queue differs from sufficient scan queue", nonBlockingOutput, boundedOutput);
+    }
+
+    protected void runReadAheadTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final File sourceDirectory = new File(projectStub.getBuild().getDirectory(), "read-ahead-sources");
+        final int scriptFileCount = 24;
+        generateScriptFiles(sourceDirectory, scriptFileCount);
+        final RecordingLog log = new RecordingLog();
+
+        final JSHintMojo synchronousMojo = this.lookupJSHintMojo(projectStub, log);
+        synchronousMojo.setPreferRhino(preferRhino);
+        synchronousMojo.setSourceDirectory(sourceDirectory);
+        synchronousMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        executeExpectingFailure(synchronousMojo);
+        final List<String> synchronousOutput = getValidationOutput(log);
+
+        for (final boolean parallel : new boolean[] { false, true })
+        {
+            log.clear();
+            final JSHintMojo readAheadMojo = this.lookupJSHintMojo(projectStub, log);
+            readAheadMojo.setPreferRhino(preferRhino);
+            readAheadMojo.setSourceDirectory(sourceDirectory);
+            readAheadMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+            readAheadMojo.setReadAheadFiles(8);
+            readAheadMojo.setBatchSize(3);
+            readAheadMojo.setParallel(parallel);
+            readAheadMojo.setThreadCount(2);
+            executeExpectingFailure(readAheadMojo);
+
+            Assert.assertEquals("Log output with read-ahead differs from synchronous reads (parallel: " + parallel + ")", synchronousOutput,
+                    getValidationOutput(log));
+        }
+    }
+
+    protected void runStreamingReportsOnFailureTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final File buildDirectory = new File(projectStub.getBuild().getDirectory());
+        final String engine = preferRhino ? "rhino" : "nashorn";
+
+        final File sourceDirectory = new File(buildDirectory, "streaming-failure-" + engine);
+        if (sourceDirectory.exists())
+        {
+            FileUtils.deleteDirectory(sourceDirectory);
+        }
+        generateScriptFiles(sourceDirectory, 5);
+
+        final File reportDirectory = new File(buildDirectory, "streaming-failure-reports-" + engine);
+        if (reportDirectory.exists())
+        {
+            FileUtils.deleteDirectory(reportDirectory);
+        }
+        final File checkstyleReportFile = new File(reportDirectory, "checkstyle.xml");
+        final File ndjsonReportFile = new File(reportDirectory, "report.ndjson");
+
+        // complete reports from a previous build
+        JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, FIXED_SYSTEM_STREAM_LOG);
+        jsHintMojo.setPreferRhino(preferRhino);
+        jsHintMojo.setSourceDirectory(sourceDirectory);
+        jsHintMojo.setIncludes(Arrays.asList("**/*.js"));
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setStreamReports(true);
+        jsHintMojo.setCheckstyleReportFile(reportDirectory.getName() + "/" + checkstyleReportFile.getName());
+        jsHintMojo.setNdjsonReportFile(reportDirectory.getName() + "/" + ndjsonReportFile.getName());
+        executeExpectingFailure(jsHintMojo);
+
+        final String previousCheckstyleReport = FileUtils.fileRead(checkstyleReportFile, StandardCharsets.UTF_8.name());
+        Assert.assertTrue("Checkstyle report was not completed", previousCheckstyleReport.trim().endsWith("</checkstyle>"));
+        Assert.assertTrue("NDJSON report was not written", ndjsonReportFile.isFile());
+
+        // script files in a subdirectory with an unparseable config fail the validation after the other script files have been reported
+        final File invalidConfigDirectory = new File(sourceDirectory, "z-invalid-config");
+        invalidConfigDirectory.mkdirs();
+        FileUtils.fileWrite(new File(invalidConfigDirectory, ".jshintrc"), StandardCharsets.UTF_8.name(), "{ \"undef\": tru }");
+        FileUtils.fileWrite(new File(invalidConfigDirectory, "script.js"), StandardCharsets.UTF_8.name(), "var a = 1;\n");
+
+        final RecordingLog log = new RecordingLog();
+        jsHintMojo = this.lookupJSHintMojo(projectStub, log);
+        jsHintMojo.setPreferRhino(preferRhino);
+        jsHintMojo.setSourceDirectory(sourceDirectory);
+        jsHintMojo.setIncludes(Arrays.asList("**/*.js"));
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setStreamReports(true);
+        jsHintMojo.setCheckstyleReportFile(reportDirectory.getName() + "/" + checkstyleReportFile.getName());
+        jsHintMojo.setNdjsonReportFile(reportDirectory.getName() + "/" + ndjsonReportFile.getName());
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("Validation should have failed on the unparseable config");
+        }
+        catch (final MojoExecutionException expected)
+        {
+            // expected
+        }
+
+        boolean filesValidated = false;
+        for (final String line : log.getLines("info"))
+        {
+            filesValidated = filesValidated || (line.startsWith("Executing JSHint on") && line.contains(File.separator + "script-"));
+        }
+        Assert.assertTrue("Validation did not fail midway", filesValidated);
+
+        Assert.assertEquals("Previous checkstyle report should have been retained", previousCheckstyleReport,
+                FileUtils.fileRead(checkstyleReportFile, StandardCharsets.UTF_8.name()));
+        Assert.assertFalse("Incomplete NDJSON report should have been deleted", ndjsonReportFile.exists());
+        Assert.assertEquals("Temporary report files should have been deleted", Arrays.asList(checkstyleReportFile.getName()),
+                Arrays.asList(reportDirectory.list()));
+    }
+
+    protected void runBatchMetricsTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final File buildDirectory = new File(projectStub.getBuild().getDirectory());
+        final String engine = preferRhino ? "rhino" : "nashorn";
+
+        final File sourceDirectory = new File(buildDirectory, "batch-metrics-" + engine);
+        if (sourceDirectory.exists())
+        {
+            FileUtils.deleteDirectory(sourceDirectory);
+        }
+        sourceDirectory.mkdirs();
+
+        // the larger file consists only of a comment, while the smaller file contains a lot of code to validate, so a duration estimated
+        // from the file sizes would rank the wrong file as the slowest
+        final StringBuilder code = new StringBuilder();
+        for (int functionIdx = 0; functionIdx < 150; functionIdx++)
+        {
+            code.append("function add").append(functionIdx).append("(a, b) {\n");
+            code.append("    \"use strict\";\n\n");
+            code.append("    var result = a + b * ").append(functionIdx).append(" - (a % 3 === 0 ? b : a);\n");
+            code.append("    return result;\n");
+            code.append("}\n\n");
+        }
+        final StringBuilder comment = new StringBuilder("/*\n");
+        while (comment.length() < code.length() * 2)
+        {
+            comment.append(" * Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt.\n");
+        }
+        comment.append(" */\n");
+        FileUtils.fileWrite(new File(sourceDirectory, "a-comment.js"), StandardCharsets.UTF_8.name(), comment.toString());
+        FileUtils.fileWrite(new File(sourceDirectory, "b-code.js"), StandardCharsets.UTF_8.name(), code.toString());
+
+        final String metricsFileName = "jshint-batch-metrics-" + engine + ".json";
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, FIXED_SYSTEM_STREAM_LOG);
+        jsHintMojo.setPreferRhino(preferRhino);
+        jsHintMojo.setSourceDirectory(sourceDirectory);
+        jsHintMojo.setIncludes(Arrays.asList("*.js"));
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setFailOnError(false);
+        jsHintMojo.setBatchSize(2);
+        jsHintMojo.setCollectMetrics(true);
+        jsHintMojo.setMetricsFile(metricsFileName);
+        jsHintMojo.setSlowestFilesCount(1);
+        jsHintMojo.execute();
+
+        final String metrics = FileUtils.fileRead(new File(buildDirectory, metricsFileName), StandardCharsets.UTF_8.name());
+        Assert.assertTrue("Metrics do not contain the number of validated files", metrics.contains("\"filesLinted\": 2"));
+        Assert.assertTrue("Measured slowest file is not the file with the most code to validate: " + metrics,
+                metrics.contains("\"slowestFiles\": [\n    {\"path\": \"b-code.js\""));
+    }
+
+    protected void runRetainEvidenceTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final File buildDirectory = new File(projectStub.getBuild().getDirectory());
+        final String engine = preferRhino ? "rhino" : "nashorn";
+
+        for (final boolean retainEvidence : new boolean[] { false, true })
+        {
+            final String reportFile = "retain-evidence-" + retainEvidence + "-" + engine + ".ndjson";
+            final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, FIXED_SYSTEM_STREAM_LOG);
+            jsHintMojo.setPreferRhino(preferRhino);
+            jsHintMojo.setRetainEvidence(retainEvidence);
+            // result cache must not replay findings without evidence
+            jsHintMojo.setUseResultCache(true);
+            jsHintMojo.setResultCacheFile("retain-evidence-cache-" + engine + ".ser");
+            jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+            jsHintMojo.setIncludes(Arrays.asList("test-jshintrc/*.js"));
+            jsHintMojo.setIgnoreJSHintConfigFiles(true);
+            jsHintMojo.setNdjsonReportFile(reportFile);
+            executeExpectingFailure(jsHintMojo);
+
+            final String report = FileUtils.fileRead(new File(buildDirectory, reportFile), StandardCharsets.UTF_8.name());
+            Assert.assertTrue("Findings missing from report", report.contains("\"code\":\"W117\""));
+            Assert.assertEquals("Unexpected presence of evidence in report", retainEvidence,
+                    report.contains("\"evidence\":\"    result = a + b;\""));
+        }
+    }
+
+    protected void runBatchTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final RecordingLog log = new RecordingLog();
+
+        final JSHintMojo jsHintMojo = this.lookupJSHintMojo(projectStub, log);
+        jsHintMojo.setPreferRhino(preferRhino);
+        jsHintMojo.setBatchSize(10);
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+
+        // should not fail as long as .jshintrc is respected
+        jsHintMojo.execute();
+        Assert.assertTrue("Script files were not validated as a batch",
+                log.getLines("debug").contains("Executing JSHint on batch of 2 script files (0 cached)"));
+
+        // should now fail since .jshintrc should not be respected
+        jsHintMojo.setIgnoreJSHintConfigFiles(true);
+        executeExpectingFailure(jsHintMojo);
+
+        // batches must produce the same findings as validating script files individually
+        final File buildDirectory = new File(projectStub.getBuild().getDirectory());
+        final File sourceDirectory = new File(buildDirectory, "batch-sources");
+        generateScriptFiles(sourceDirectory, 24);
+        final String engine = preferRhino ? "rhino" : "nashorn";
+
+        log.clear();
+        final JSHintMojo individualMojo = this.lookupJSHintMojo(projectStub, log);
+        individualMojo.setPreferRhino(preferRhino);
+        individualMojo.setSourceDirectory(sourceDirectory);
+        individualMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        individualMojo.setNdjsonReportFile("batch-individual-" + engine + ".ndjson");
+        executeExpectingFailure(individualMojo);
+        final List<String> individualOutput = getValidationOutput(log);
+
+        log.clear();
+        final JSHintMojo batchMojo = this.lookupJSHintMojo(projectStub, log);
+        batchMojo.setPreferRhino(preferRhino);
+        batchMojo.setBatchSize(10);
+        batchMojo.setSourceDirectory(sourceDirectory);
+        batchMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        batchMojo.setNdjsonReportFile("batch-batched-" + engine + ".ndjson");
+        executeExpectingFailure(batchMojo);
+        final List<String> batchOutput = getValidationOutput(log);
+
+        int batchesValidated = 0;
+        for (final String line : log.getLines("debug"))
+        {
+            batchesValidated += line.startsWith("Executing JSHint on batch of ") ? 1 : 0;
+        }
+        Assert.assertEquals("Script files were not validated in batches", 3, batchesValidated);
+        Assert.assertEquals("Log output of batch validation differs from individual validation", individualOutput, batchOutput);
+
+        final String individualReport = FileUtils.fileRead(new File(buildDirectory, "batch-individual-" + engine + ".ndjson"),
+                StandardCharsets.UTF_8.name());
+        final String batchReport = FileUtils.fileRead(new File(buildDirectory, "batch-batched-" + engine + ".ndjson"),
+                StandardCharsets.UTF_8.name());
+        Assert.assertEquals("NDJSON report of batch validation differs from individual validation", individualReport, batchReport);
+    }
+
+    protected void runParallelOrderTest(final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final File buildDirectory = new File(projectStub.getBuild().getDirectory());
+        final File sourceDirectory = new File(buildDirectory, "parallel-order-sources");
+        final int scriptFileCount = 24;
+        generateScriptFiles(sourceDirectory, scriptFileCount);
+
+        final String engine = preferRhino ? "rhino" : "nashorn";
+        final RecordingLog log = new RecordingLog();
+
+        final JSHintMojo sequentialMojo = this.lookupJSHintMojo(projectStub, log);
+        sequentialMojo.setPreferRhino(preferRhino);
+        sequentialMojo.setSourceDirectory(sourceDirectory);
+        sequentialMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        sequentialMojo.setNdjsonReportFile("parallel-order-sequential-" + engine + ".ndjson");
+        executeExpectingFailure(sequentialMojo);
+        final List<String> sequentialOutput = getValidationOutput(log);
+        log.clear();
+
+        final JSHintMojo parallelMojo = this.lookupJSHintMojo(projectStub, log);
+        parallelMojo.setPreferRhino(preferRhino);
+        parallelMojo.setParallel(true);
+        parallelMojo.setThreadCount(4);
+        parallelMojo.setSourceDirectory(sourceDirectory);
+        parallelMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        parallelMojo.setNdjsonReportFile("parallel-order-parallel-" + engine + ".ndjson");
+        executeExpectingFailure(parallelMojo);
+        final List<String> parallelOutput = getValidationOutput(log);
+
+        int filesValidated = 0;
+        for (final String line : sequentialOutput)
+        {
+            filesValidated += line.startsWith("[info] Executing JSHint on") ? 1 : 0;
+        }
+        Assert.assertEquals("Not all script files were validated", scriptFileCount, filesValidated);
+        Assert.assertEquals("Log output of parallel validation differs from sequential validation", sequentialOutput, parallelOutput);
+
+        final String sequentialReport = FileUtils.fileRead(new File(buildDirectory, "parallel-order-sequential-" + engine + ".ndjson"),
+                StandardCharsets.UTF_8.name());
+        final String parallelReport = FileUtils.fileRead(new File(buildDirectory, "parallel-order-parallel-" + engine + ".ndjson"),
+                StandardCharsets.UTF_8.name());
+        Assert.assertEquals("NDJSON report of parallel validation differs from sequential validation", sequentialReport, parallelReport);
+    }
+
+    protected JSHintMojo lookupJSHintMojo(final TestProjectStub projectStub, final Log log) throws Exception
+    {
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(log);
+        return (JSHintMojo) mojo;
+    }
+
+    protected static void executeExpectingFailure(final JSHintMojo jsHintMojo) throws MojoExecutionException
+    {
+        try
+        {
+            jsHintMojo.execute();
+            Assert.fail("JSHint errors should have been found");
+        }
+        catch (final MojoFailureException expected)
+        {
+            // expected
+        }
+    }
+
+    protected static void restoreSystemProperty(final String name, final String previousValue)
+    {
+        if (previousValue != null)
+        {
+            System.setProperty(name, previousValue);
+        }
+        else
+        {
+            System.clearProperty(name);
+        }
+    }
+
+    // output of the validation of individual script files, excluding any output on engine / pool management
+    protected static List<String> getValidationOutput(final RecordingLog log)
+    {
+        final List<String> output = new ArrayList<>();
+        for (final String line : log.getLines())
+        {
+            if (line.startsWith("[info] Executing JSHint on") || line.startsWith("[error] "))
+            {
+                output.add(line);
+            }
+        }
+        return output;
+    }
+
+    // script files of varying size, each with a different number of findings, so that validations complete in a different order than
+    // they are started when run in parallel
+    protected static void generateScriptFiles(final File directory, final int count) throws IOException
+    {
+        if (directory.exists())
+        {
+            FileUtils.deleteDirectory(directory);
+        }
+        directory.mkdirs();
+
+        for (int fileIdx = 0; fileIdx < count; fileIdx++)
+        {
+            final StringBuilder sb = new StringBuilder();
+            final int functionCount = 1 + (fileIdx * 7) % 40;
+            for (int functionIdx = 0; functionIdx < functionCount; functionIdx++)
+            {
+                sb.append("function script").append(fileIdx).append("Add").append(functionIdx).append("(a, b) {\n");
+                sb.append("    \"use strict\";\n\n");
+                sb.append("    var result = a + b;\n");
+                sb.append("    return result;\n");
+                sb.append("}\n\n");
+            }
+            sb.append("undeclaredVariable").append(fileIdx).append(" = ").append(fileIdx).append(";\n");
+            FileUtils.fileWrite(new File(directory, String.format("script-%02d.js", fileIdx)), StandardCharsets.UTF_8.name(),
+                    sb.toString());
+        }
+    }
 }
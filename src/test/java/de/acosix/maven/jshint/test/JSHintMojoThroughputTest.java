@@ -0,0 +1,445 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Properties;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.plugin.testing.MojoRule;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import de.acosix.maven.jshint.JSHintMojo;
+
+/**
+ * Throughput regression tests running the plugin against a large, generated source tree with nested {@code .jshintrc} and
+ * {@code .jshintignore} files. These tests are only run when the system property {@code jshint.throughput.enabled} is set to {@code true},
+ * e.g. via the {@code throughput-tests} profile. Results are written to
+ * {@code target/test-projects/generic-tests/jshint-throughput.properties} and may be used as a baseline for subsequent runs. Peak heap
+ * is the highest total heap usage sampled while the plugin is running. The following system properties control the tests:
+ * <ul>
+ * <li>{@code jshint.throughput.fileCount} - the number of script files to validate (default: 10000)</li>
+ * <li>{@code jshint.throughput.baselineFile} - the results of a previous run to compare against</li>
+ * <li>{@code jshint.throughput.maxRegression} - the maximum relative regression of files per second and peak heap compared to the
+ * baseline (default: 0.25)</li>
+ * <li>{@code jshint.throughput.minFilesPerSecond} - the absolute minimum of files per second</li>
+ * <li>{@code jshint.throughput.maxPeakHeapMB} - the absolute maximum of peak heap usage in megabytes</li>
+ * </ul>
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintMojoThroughputTest
+{
+
+    private static final String TEST_PROJECT_PATH = "src/test/resources/projects/generic-tests";
+
+    private static final String CORPUS_DIRECTORY_NAME = "throughput-corpus";
+
+    private static final String RESULTS_FILE_NAME = "jshint-throughput.properties";
+
+    // fixed seed so that each run validates the exact same corpus
+    private static final long CORPUS_SEED = 20161105L;
+
+    private static final int MODULE_COUNT = 20;
+
+    private static final int PACKAGES_PER_MODULE = 10;
+
+    private static final String CONFIG_TEMPLATE = "'{'\n\t\"bitwise\": true,\n\t\"curly\": true,\n\t\"eqeqeq\": true,\n"
+            + "\t\"esversion\": 5,\n\t\"forin\": true,\n\t\"freeze\": true,\n\t\"futurehostile\": true,\n\t\"latedef\": true,\n"
+            + "\t\"maxerr\": 100,\n\t\"noarg\": true,\n\t\"nonew\": true,\n\t\"singleGroups\": true,\n\t\"strict\": true,\n"
+            + "\t\"undef\": {0},\n\t\"unused\": true\n'}'";
+
+    private static final long HEAP_SAMPLING_INTERVAL_MILLIS = 5;
+
+    private static final Pattern FILES_LINTED_PATTERN = Pattern.compile("\"filesLinted\": (\\d+)");
+
+    private static final Log QUIET_LOG = new SystemStreamLog()
+    {
+
+        /**
+         *
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isInfoEnabled()
+        {
+            return false;
+        }
+
+        /**
+         *
+         * {@inheritDoc}
+         */
+        @Override
+        public void info(final CharSequence content)
+        {
+            // NO-OP - avoid measuring console output
+        }
+    };
+
+    private static int fileCount;
+
+    /**
+     * Instances of this class periodically sample the total heap usage to determine its peak while an operation is running. Unlike the
+     * peak usages of the individual memory pools, this reflects the highest amount of heap actually in use at any one time.
+     */
+    protected static class HeapSampler implements Runnable
+    {
+
+        protected final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+        protected final Thread thread;
+
+        protected volatile boolean running = true;
+
+        protected volatile long peakHeapBytes;
+
+        protected HeapSampler()
+        {
+            this.thread = new Thread(this, "jshint-throughput-heap-sampler");
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Starts sampling heap usage.
+         */
+        public void start()
+        {
+            this.sample();
+            this.thread.start();
+        }
+
+        /**
+         * Stops sampling heap usage.
+         *
+         * @return the peak heap usage in bytes
+         * @throws InterruptedException
+         *             if interrupted while waiting for the sampling thread to end
+         */
+        public long stop() throws InterruptedException
+        {
+            this.running = false;
+            this.thread.interrupt();
+            this.thread.join();
+            this.sample();
+            return this.peakHeapBytes;
+        }
+
+        /**
+         *
+         * {@inheritDoc}
+         */
+        @Override
+        public void run()
+        {
+            while (this.running)
+            {
+                this.sample();
+                try
+                {
+                    Thread.sleep(HEAP_SAMPLING_INTERVAL_MILLIS);
+                }
+                catch (final InterruptedException iex)
+                {
+                    // stop() has been called - loop condition ends sampling
+                }
+            }
+        }
+
+        protected void sample()
+        {
+            final long usedHeapBytes = this.memoryBean.getHeapMemoryUsage().getUsed();
+            if (usedHeapBytes > this.peakHeapBytes)
+            {
+                this.peakHeapBytes = usedHeapBytes;
+            }
+        }
+    }
+
+    @Rule
+    public MojoRule rule = new MojoRule();
+
+    @BeforeClass
+    public static void generateCorpus() throws IOException
+    {
+        Assume.assumeTrue("Throughput tests are not enabled", Boolean.getBoolean("jshint.throughput.enabled"));
+
+        fileCount = Integer.getInteger("jshint.throughput.fileCount", 10000).intValue();
+
+        final File corpusDirectory = new File(new TestProjectStub(TEST_PROJECT_PATH).getBuild().getDirectory(), CORPUS_DIRECTORY_NAME);
+        if (corpusDirectory.exists())
+        {
+            FileUtils.deleteDirectory(corpusDirectory);
+        }
+
+        final Random random = new Random(CORPUS_SEED);
+        final int packageCount = MODULE_COUNT * PACKAGES_PER_MODULE;
+        for (int packageIdx = 0; packageIdx < packageCount; packageIdx++)
+        {
+            final int moduleIdx = packageIdx / PACKAGES_PER_MODULE;
+            final File moduleDirectory = new File(corpusDirectory, String.format("module-%02d", moduleIdx));
+            final File packageDirectory = new File(moduleDirectory, String.format("pkg-%02d", packageIdx % PACKAGES_PER_MODULE));
+            packageDirectory.mkdirs();
+
+            // every third module relaxes undef, with some of its packages enforcing it again
+            final boolean relaxedModule = moduleIdx % 3 == 0;
+            final boolean strictPackage = relaxedModule && packageIdx % 5 == 4;
+            if (relaxedModule && packageIdx % PACKAGES_PER_MODULE == 0)
+            {
+                writeFile(new File(moduleDirectory, ".jshintrc"), MessageFormat.format(CONFIG_TEMPLATE, "false"));
+            }
+            if (strictPackage)
+            {
+                writeFile(new File(packageDirectory, ".jshintrc"), MessageFormat.format(CONFIG_TEMPLATE, "true"));
+            }
+
+            // every fourth package contains generated files with violations that must be excluded via .jshintignore
+            if (packageIdx % 4 == 0)
+            {
+                writeFile(new File(packageDirectory, ".jshintignore"), "generated-*.js\n");
+                for (int generatedIdx = 0; generatedIdx < 2; generatedIdx++)
+                {
+                    writeFile(new File(packageDirectory, "generated-" + generatedIdx + ".js"),
+                            "if (input == null) output = 1\nmissingSemicolon = input\n");
+                }
+            }
+
+            // distribute files evenly, with the first packages taking any remainder
+            final int packageFileCount = fileCount / packageCount + (packageIdx < fileCount % packageCount ? 1 : 0);
+            for (int fileIdx = 0; fileIdx < packageFileCount; fileIdx++)
+            {
+                final String functionPrefix = "m" + moduleIdx + "p" + packageIdx + "f" + fileIdx;
+                writeFile(new File(packageDirectory, String.format("file-%04d.js", fileIdx)),
+                        generateScript(random, functionPrefix, relaxedModule && !strictPackage));
+            }
+        }
+    }
+
+    @Test
+    public void testLargeCorpusThroughputNashorn() throws Exception
+    {
+        this.runThroughputTest("nashorn", false);
+    }
+
+    @Test
+    public void testLargeCorpusThroughputRhino() throws Exception
+    {
+        this.runThroughputTest("rhino", true);
+    }
+
+    protected void runThroughputTest(final String engine, final boolean preferRhino) throws Exception
+    {
+        final TestProjectStub projectStub = new TestProjectStub(TEST_PROJECT_PATH);
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+
+        Assert.assertNotNull("JSHintMojo was not found", mojo);
+        Assert.assertTrue("JSHintMojo is not of expected type", mojo instanceof JSHintMojo);
+
+        mojo.setLog(QUIET_LOG);
+
+        final File buildDirectory = new File(projectStub.getBuild().getDirectory());
+        final String metricsFileName = "jshint-throughput-metrics-" + engine + ".json";
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        jsHintMojo.setPreferRhino(preferRhino);
+        jsHintMojo.setSourceDirectory(new File(buildDirectory, CORPUS_DIRECTORY_NAME));
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setParallel(true);
+        jsHintMojo.setCollectMetrics(true);
+        jsHintMojo.setMetricsFile(metricsFileName);
+
+        System.gc();
+        final HeapSampler heapSampler = new HeapSampler();
+        heapSampler.start();
+
+        final long startNanos = System.nanoTime();
+        final long wallClockMillis;
+        final long peakHeapBytes;
+        try
+        {
+            jsHintMojo.execute();
+        }
+        finally
+        {
+            wallClockMillis = (System.nanoTime() - startNanos) / 1000000L;
+            peakHeapBytes = heapSampler.stop();
+        }
+
+        final double filesPerSecond = fileCount * 1000d / Math.max(wallClockMillis, 1);
+
+        final String metrics = FileUtils.fileRead(new File(buildDirectory, metricsFileName), StandardCharsets.UTF_8.name());
+        final Matcher filesLintedMatcher = FILES_LINTED_PATTERN.matcher(metrics);
+        Assert.assertTrue("Metrics do not contain the number of validated files", filesLintedMatcher.find());
+        Assert.assertEquals("Ignored script files should not have been validated", fileCount,
+                Integer.parseInt(filesLintedMatcher.group(1)));
+
+        final File resultsFile = new File(buildDirectory, RESULTS_FILE_NAME);
+        final Properties results = resultsFile.isFile() ? loadProperties(resultsFile) : new Properties();
+        results.setProperty(engine + ".fileCount", String.valueOf(fileCount));
+        results.setProperty(engine + ".wallClockMillis", String.valueOf(wallClockMillis));
+        results.setProperty(engine + ".peakHeapBytes", String.valueOf(peakHeapBytes));
+        results.setProperty(engine + ".filesPerSecond", String.valueOf(filesPerSecond));
+        storeProperties(resultsFile, results);
+
+        this.checkThresholds(engine, filesPerSecond, peakHeapBytes);
+    }
+
+    protected void checkThresholds(final String engine, final double filesPerSecond, final long peakHeapBytes) throws IOException
+    {
+        final String minFilesPerSecond = System.getProperty("jshint.throughput.minFilesPerSecond");
+        if (minFilesPerSecond != null && !minFilesPerSecond.trim().isEmpty())
+        {
+            Assert.assertTrue(MessageFormat.format("Throughput of {0} files/s is below minimum of {1}", filesPerSecond, minFilesPerSecond),
+                    filesPerSecond >= Double.parseDouble(minFilesPerSecond));
+        }
+
+        final String maxPeakHeapMB = System.getProperty("jshint.throughput.maxPeakHeapMB");
+        if (maxPeakHeapMB != null && !maxPeakHeapMB.trim().isEmpty())
+        {
+            Assert.assertTrue(MessageFormat.format("Peak heap of {0} bytes exceeds maximum of {1} MiB", peakHeapBytes, maxPeakHeapMB),
+                    peakHeapBytes <= Long.parseLong(maxPeakHeapMB) * 1024 * 1024);
+        }
+
+        final String baselineFileName = System.getProperty("jshint.throughput.baselineFile");
+        if (baselineFileName != null && !baselineFileName.trim().isEmpty())
+        {
+            final Properties baseline = loadProperties(new File(baselineFileName));
+            final double maxRegression = Double.parseDouble(System.getProperty("jshint.throughput.maxRegression", "0.25"));
+
+            final String baselineFileCount = baseline.getProperty(engine + ".fileCount");
+            final String baselineFilesPerSecond = baseline.getProperty(engine + ".filesPerSecond");
+            final String baselinePeakHeapBytes = baseline.getProperty(engine + ".peakHeapBytes");
+            Assume.assumeTrue("Baseline does not contain results for " + engine + " with the same number of files",
+                    String.valueOf(fileCount).equals(baselineFileCount) && baselineFilesPerSecond != null && baselinePeakHeapBytes != null);
+
+            final double minRelativeFilesPerSecond = Double.parseDouble(baselineFilesPerSecond) * (1 - maxRegression);
+            Assert.assertTrue(MessageFormat.format("Throughput of {0} files/s regressed beyond {1} files/s (baseline {2} files/s)",
+                    filesPerSecond, minRelativeFilesPerSecond, baselineFilesPerSecond), filesPerSecond >= minRelativeFilesPerSecond);
+
+            final double maxRelativePeakHeapBytes = Long.parseLong(baselinePeakHeapBytes) * (1 + maxRegression);
+            Assert.assertTrue(MessageFormat.format("Peak heap of {0} bytes regressed beyond {1} bytes (baseline {2} bytes)", peakHeapBytes,
+                    maxRelativePeakHeapBytes, baselinePeakHeapBytes), peakHeapBytes <= maxRelativePeakHeapBytes);
+        }
+    }
+
+    protected static String generateScript(final Random random, final String functionPrefix, final boolean useUndeclaredGlobals)
+    {
+        final StringBuilder sb = new StringBuilder(2048);
+        final int functionCount = 1 + random.nextInt(12);
+        for (int functionIdx = 0; functionIdx < functionCount; functionIdx++)
+        {
+            final String functionName = functionPrefix + "fn" + functionIdx;
+            sb.append("function ").append(functionName).append("(values) {\n");
+            sb.append("    \"use strict\";\n\n");
+            switch (random.nextInt(3))
+            {
+                case 0:
+                    sb.append("    var total = 0, idx;\n");
+                    sb.append("    for (idx = 0; idx < values.length; idx++) {\n");
+                    sb.append("        if (values[idx] % ").append(2 + random.nextInt(5)).append(" === 0) {\n");
+                    sb.append("            total += values[idx] * ").append(1 + random.nextInt(9)).append(";\n");
+                    sb.append("        } else {\n");
+                    sb.append("            total -= values[idx];\n");
+                    sb.append("        }\n");
+                    sb.append("    }\n");
+                    break;
+                case 1:
+                    sb.append("    var total = {\n");
+                    sb.append("        count: values.length,\n");
+                    sb.append("        label: \"").append(functionName).append("-\" + values.join(\",\"),\n");
+                    sb.append("        first: values.length > 0 ? values[0] : null\n");
+                    sb.append("    };\n");
+                    break;
+                default:
+                    sb.append("    var total;\n");
+                    sb.append("    switch (values.length) {\n");
+                    sb.append("        case 0:\n");
+                    sb.append("            total = \"none\";\n");
+                    sb.append("            break;\n");
+                    sb.append("        case ").append(1 + random.nextInt(4)).append(":\n");
+                    sb.append("            total = \"few\";\n");
+                    sb.append("            break;\n");
+                    sb.append("        default:\n");
+                    sb.append("            total = \"many\";\n");
+                    sb.append("    }\n");
+            }
+            if (useUndeclaredGlobals)
+            {
+                sb.append("    lastResult = total;\n");
+            }
+            sb.append("    return total;\n");
+            sb.append("}\n\n");
+        }
+
+        for (int functionIdx = 0; functionIdx < functionCount; functionIdx++)
+        {
+            sb.append(functionPrefix).append("fn").append(functionIdx).append("([").append(random.nextInt(100)).append(", ")
+                    .append(random.nextInt(100)).append("]);\n");
+        }
+        return sb.toString();
+    }
+
+    protected static void writeFile(final File file, final String content) throws IOException
+    {
+        FileUtils.fileWrite(file, StandardCharsets.UTF_8.name(), content);
+    }
+
+    protected static Properties loadProperties(final File file) throws IOException
+    {
+        final Properties properties = new Properties();
+        final FileInputStream fis = new FileInputStream(file);
+        try
+        {
+            properties.load(fis);
+        }
+        finally
+        {
+            IOUtil.close(fis);
+        }
+        return properties;
+    }
+
+    protected static void storeProperties(final File file, final Properties properties) throws IOException
+    {
+        final FileOutputStream fos = new FileOutputStream(file);
+        try
+        {
+            properties.store(fos, "JSHint throughput results");
+        }
+        finally
+        {
+            IOUtil.close(fos);
+        }
+    }
+}
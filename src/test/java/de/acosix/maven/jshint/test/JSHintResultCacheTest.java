@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.acosix.maven.jshint.Error;
+import de.acosix.maven.jshint.JSHintResultCache;
+import de.acosix.maven.jshint.JSHintSourcePrefetcher;
+
+/**
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintResultCacheTest
+{
+
+    private static final String CONFIG = "{\"undef\":true}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStoredResultReflectsValidatedContent() throws Exception
+    {
+        final File baseDirectory = this.folder.newFolder("sources");
+        final File scriptFile = new File(baseDirectory, "script.js");
+        FileUtils.fileWrite(scriptFile, StandardCharsets.UTF_8.name(), "var a = 1;");
+        final List<Error> errors = Collections.singletonList(new Error("(error)", "W117", "'{a}' is not defined.", null,
+                "'a' is not defined.", 1, 5));
+
+        final File cacheFile = new File(this.folder.getRoot(), "cache.ser");
+        final JSHintResultCache cache = new JSHintResultCache(new RecordingLog(), cacheFile, "test");
+        cache.recordSource("script.js", JSHintSourcePrefetcher.readSource(baseDirectory, "script.js"));
+
+        // script file changes after it has been read for validation but before the result is stored
+        final long lastModified = scriptFile.lastModified();
+        FileUtils.fileWrite(scriptFile, StandardCharsets.UTF_8.name(), "var b = 1;");
+        // same size, so only the content hash can tell the difference
+        scriptFile.setLastModified(lastModified + 10000);
+        cache.store("script.js", CONFIG, errors);
+        cache.save();
+
+        final JSHintResultCache reloadedCache = new JSHintResultCache(new RecordingLog(), cacheFile, "test");
+        reloadedCache.load();
+        Assert.assertNull("Result for outdated content should not be reused", reloadedCache.lookup(baseDirectory, "script.js", CONFIG));
+
+        FileUtils.fileWrite(scriptFile, StandardCharsets.UTF_8.name(), "var a = 1;");
+        scriptFile.setLastModified(lastModified + 20000);
+        final List<Error> cachedErrors = reloadedCache.lookup(baseDirectory, "script.js", CONFIG);
+        Assert.assertNotNull("Result for validated content should be reused", cachedErrors);
+        Assert.assertEquals(1, cachedErrors.size());
+        Assert.assertEquals("W117", cachedErrors.get(0).getCode());
+        Assert.assertEquals(5, cachedErrors.get(0).getCharacter());
+    }
+
+    @Test
+    public void testUnrecordedResultNotStored() throws Exception
+    {
+        final File baseDirectory = this.folder.newFolder("sources");
+        FileUtils.fileWrite(new File(baseDirectory, "script.js"), StandardCharsets.UTF_8.name(), "var a = 1;");
+
+        final File cacheFile = new File(this.folder.getRoot(), "cache.ser");
+        final JSHintResultCache cache = new JSHintResultCache(new RecordingLog(), cacheFile, "test");
+        cache.store("script.js", CONFIG, Collections.<Error> emptyList());
+        cache.save();
+
+        final JSHintResultCache reloadedCache = new JSHintResultCache(new RecordingLog(), cacheFile, "test");
+        reloadedCache.load();
+        Assert.assertNull("Result without recorded source should not be cached", reloadedCache.lookup(baseDirectory, "script.js", CONFIG));
+    }
+
+    @Test
+    public void testResourceHashDistinguishesContent()
+    {
+        final String rhinoRunnerHash = JSHintResultCache.hashResource(JSHintResultCache.class.getResource("jshint-rhino-runner.js"));
+        final String nashornRunnerHash = JSHintResultCache.hashResource(JSHintResultCache.class.getResource("jshint-nashorn-runner.js"));
+
+        Assert.assertEquals(40, rhinoRunnerHash.length());
+        Assert.assertNotEquals(rhinoRunnerHash, nashornRunnerHash);
+        Assert.assertEquals(rhinoRunnerHash,
+                JSHintResultCache.hashResource(JSHintResultCache.class.getResource("jshint-rhino-runner.js")));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.script.ScriptEngineManager;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.acosix.maven.jshint.AbstractJSHinter;
+import de.acosix.maven.jshint.Error;
+import de.acosix.maven.jshint.NashornJSHinter;
+import de.acosix.maven.jshint.RhinoJSHinter;
+
+/**
+ * Verifies that passing the source of a script file as a single string reports the same findings as the line-based source previously
+ * read via {@link BufferedReader#readLine()}, regardless of the line endings used by the script file.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintSourceLineEndingsTest
+{
+
+    private static final String CONFIG = "{\"undef\": true, \"eqeqeq\": true}";
+
+    private static final String[] SOURCE_LINES = { "function test(a)", "{", "    result = a == 1", "    return result;  ", "}", "",
+            "if (test(1)) {", "    test(2)" };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLineEndingsRhino() throws Exception
+    {
+        final RhinoJSHinter hinter = new RhinoJSHinter(new RecordingLog(), "2.9.3", false);
+        this.runLineEndingsTest(hinter);
+    }
+
+    @Test
+    public void testLineEndingsNashorn() throws Exception
+    {
+        Assume.assumeTrue("Nashorn is not available", new ScriptEngineManager().getEngineByName("nashorn") != null);
+
+        final NashornJSHinter hinter = new NashornJSHinter(new RecordingLog(), "2.9.3", false);
+        this.runLineEndingsTest(hinter);
+    }
+
+    protected void runLineEndingsTest(final AbstractJSHinter hinter) throws Exception
+    {
+        hinter.setRetainEvidence(true);
+
+        final File baseDirectory = this.folder.getRoot();
+        final String[] lineEndings = { "\n", "\r\n" };
+        for (final String lineEnding : lineEndings)
+        {
+            final StringBuilder sb = new StringBuilder();
+            for (final String line : SOURCE_LINES)
+            {
+                sb.append(line).append(lineEnding);
+            }
+            final String source = sb.toString();
+
+            final String description = lineEnding.equals("\n") ? "LF" : "CRLF";
+            this.assertSameFindings(hinter, baseDirectory, description + " ending in line break", source);
+            this.assertSameFindings(hinter, baseDirectory, description + " without final line break",
+                    source.substring(0, source.length() - lineEnding.length()));
+        }
+    }
+
+    protected void assertSameFindings(final AbstractJSHinter hinter, final File baseDirectory, final String description,
+            final String source) throws Exception
+    {
+        Files.write(new File(baseDirectory, "script.js").toPath(), source.getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(baseDirectory, "baseline.js").toPath(), toBaselineSource(source).getBytes(StandardCharsets.UTF_8));
+
+        final List<String> findings = describeFindings(hinter.executeJSHint(baseDirectory, "script.js", CONFIG, true));
+        final List<String> baselineFindings = describeFindings(hinter.executeJSHint(baseDirectory, "baseline.js", CONFIG, true));
+
+        Assert.assertFalse("Test script did not produce any findings", baselineFindings.isEmpty());
+        Assert.assertEquals("Findings differ from baseline for source with " + description, baselineFindings, findings);
+    }
+
+    // the source as JSHint previously received it - lines split by BufferedReader.readLine and joined by JSHint with \n
+    protected static String toBaselineSource(final String source) throws Exception
+    {
+        final StringBuilder sb = new StringBuilder();
+        final BufferedReader reader = new BufferedReader(new StringReader(source));
+        String line;
+        boolean firstLine = true;
+        while ((line = reader.readLine()) != null)
+        {
+            if (!firstLine)
+            {
+                sb.append('\n');
+            }
+            sb.append(line);
+            firstLine = false;
+        }
+        return sb.toString();
+    }
+
+    protected static List<String> describeFindings(final List<Error> errors)
+    {
+        final List<String> findings = new ArrayList<>();
+        for (final Error error : errors)
+        {
+            findings.add(error.getLine() + ":" + error.getCharacter() + " " + error.getCode() + " [" + error.getEvidence() + "]");
+        }
+        return findings;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.acosix.maven.jshint.JSHintSourcePrefetcher;
+import de.acosix.maven.jshint.JSHintSourcePrefetcher.ScriptSource;
+
+/**
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintSourcePrefetcherTest
+{
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadLargeMultiByteSource() throws Exception
+    {
+        final File baseDirectory = this.folder.newFolder("sources");
+        final File scriptFile = new File(baseDirectory, "large.js");
+
+        // well beyond 1 MiB, with multi-byte characters (2, 3 and 4 bytes in UTF-8)
+        final StringBuilder sb = new StringBuilder();
+        for (int idx = 0; sb.length() < 2 * 1024 * 1024; idx++)
+        {
+            sb.append("var s").append(idx).append(" = \"\u00e4\u00f6\u00fc \u20ac \uD83D\uDE00\";\n");
+        }
+        final String content = sb.toString();
+        FileUtils.fileWrite(scriptFile, StandardCharsets.UTF_8.name(), content);
+
+        final ScriptSource source = JSHintSourcePrefetcher.readSource(baseDirectory, "large.js");
+        // final line break is not part of the content passed to JSHint
+        Assert.assertEquals(content.substring(0, content.length() - 1), source.getContent());
+        Assert.assertEquals(content.getBytes(StandardCharsets.UTF_8).length, source.getSize());
+        Assert.assertEquals(scriptFile.lastModified(), source.getLastModified());
+
+        // no mapping or open handle may keep the file locked (relevant on Windows)
+        Assert.assertTrue("Script file could not be deleted after read", scriptFile.delete());
+    }
+
+    @Test
+    public void testPrefetchedSource() throws Exception
+    {
+        final File baseDirectory = this.folder.newFolder("sources");
+        FileUtils.fileWrite(new File(baseDirectory, "a.js"), StandardCharsets.UTF_8.name(), "var a = 1;");
+        FileUtils.fileWrite(new File(baseDirectory, "b.js"), StandardCharsets.UTF_8.name(), "var b = 2;");
+
+        final JSHintSourcePrefetcher prefetcher = new JSHintSourcePrefetcher(baseDirectory, 2);
+        try
+        {
+            prefetcher.prefetch(Arrays.asList("a.js", "b.js"));
+
+            Assert.assertEquals("var a = 1;", prefetcher.getSource(baseDirectory, "a.js").getContent());
+            Assert.assertEquals("var b = 2;", prefetcher.getSource(baseDirectory, "b.js").getContent());
+
+            // not prefetched (any more) - read synchronously, reflecting the current content
+            FileUtils.fileWrite(new File(baseDirectory, "a.js"), StandardCharsets.UTF_8.name(), "var a = 3;");
+            Assert.assertEquals("var a = 3;", prefetcher.getSource(baseDirectory, "a.js").getContent());
+        }
+        finally
+        {
+            prefetcher.shutdown();
+        }
+    }
+}
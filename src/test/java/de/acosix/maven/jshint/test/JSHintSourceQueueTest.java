@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.acosix.maven.jshint.JSHintConfigIndex;
+import de.acosix.maven.jshint.JSHintSourceQueue;
+import de.acosix.maven.jshint.JSHintSourceScanner;
+
+/**
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintSourceQueueTest
+{
+
+    /**
+     * Exposes the state of the scan thread for inspection.
+     */
+    protected static class InspectableJSHintSourceQueue extends JSHintSourceQueue
+    {
+
+        protected InspectableJSHintSourceQueue(final JSHintSourceScanner scanner, final JSHintConfigIndex configIndex, final int capacity)
+        {
+            super(scanner, configIndex, capacity);
+        }
+
+        protected boolean isScanRunning()
+        {
+            return this.scanThread != null && this.scanThread.isAlive();
+        }
+    }
+
+    private static final int SCRIPT_FILE_COUNT = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAllScriptFilesTakenWithMinimalCapacity() throws Exception
+    {
+        final File sourceDirectory = this.createSourceDirectory();
+        final JSHintSourceScanner scanner = new JSHintSourceScanner(new RecordingLog(), sourceDirectory, null, null, false);
+        final InspectableJSHintSourceQueue queue = new InspectableJSHintSourceQueue(scanner, null, 1);
+
+        final List<String> scriptFiles = new ArrayList<>();
+        queue.start();
+        try
+        {
+            List<String> batch = queue.takeBatch(3);
+            while (!batch.isEmpty())
+            {
+                scriptFiles.addAll(batch);
+                batch = queue.takeBatch(3);
+            }
+        }
+        finally
+        {
+            queue.close();
+        }
+
+        Assert.assertEquals(SCRIPT_FILE_COUNT, scriptFiles.size());
+        Assert.assertEquals("Script files were taken more than once", SCRIPT_FILE_COUNT, new HashSet<>(scriptFiles).size());
+        Assert.assertEquals(SCRIPT_FILE_COUNT, queue.getScriptFilesTaken());
+        Assert.assertFalse("Scan is still running", queue.isScanRunning());
+    }
+
+    @Test
+    public void testCloseWaitsForAbortedScan() throws Exception
+    {
+        final File sourceDirectory = this.createSourceDirectory();
+        final RecordingLog scanLog = new RecordingLog();
+        final JSHintSourceScanner scanner = new JSHintSourceScanner(scanLog, sourceDirectory, null, null, false);
+        final InspectableJSHintSourceQueue queue = new InspectableJSHintSourceQueue(scanner, null, 1);
+
+        queue.start();
+        Assert.assertEquals(1, queue.takeBatch(1).size());
+        // scan is blocked on the full queue
+        queue.close();
+
+        Assert.assertFalse("Scan is still running after close", queue.isScanRunning());
+        final List<String> linesAfterClose = scanLog.getLines();
+        Thread.sleep(100);
+        Assert.assertEquals("Scan produced output after close", linesAfterClose, scanLog.getLines());
+
+        final Set<String> scriptFilesFound = new HashSet<>();
+        for (final String line : linesAfterClose)
+        {
+            if (line.startsWith("[debug] Found JavaScript file to process: "))
+            {
+                scriptFilesFound.add(line);
+            }
+        }
+        Assert.assertTrue("Scan was not aborted", scriptFilesFound.size() < SCRIPT_FILE_COUNT);
+    }
+
+    protected File createSourceDirectory() throws Exception
+    {
+        final File sourceDirectory = this.folder.newFolder("sources");
+        for (int idx = 0; idx < SCRIPT_FILE_COUNT; idx++)
+        {
+            FileUtils.fileWrite(new File(sourceDirectory, String.format("script-%02d.js", idx)), StandardCharsets.UTF_8.name(),
+                    "var a" + idx + " = " + idx + ";");
+        }
+        return sourceDirectory;
+    }
+}
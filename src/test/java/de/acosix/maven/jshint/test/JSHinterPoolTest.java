@@ -0,0 +1,304 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.acosix.maven.jshint.JSHinter;
+import de.acosix.maven.jshint.JSHinterPool;
+import de.acosix.maven.jshint.JSHinterPool.JSHinterFactory;
+import de.acosix.maven.jshint.JSHinterPool.PooledJSHinter;
+
+/**
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHinterPoolTest
+{
+
+    @Test
+    public void testConcurrentUseReusesHinters() throws Exception
+    {
+        final int concurrencyLimit = 2;
+        final int threadCount = 8;
+        final int acquisitionsPerThread = 50;
+
+        final JSHinterPool pool = new JSHinterPool(new Semaphore(concurrencyLimit, true), concurrencyLimit)
+        {
+            // no customisation - only exposes protected constructor
+        };
+        final AtomicInteger hintersCreated = new AtomicInteger();
+        final AtomicInteger hintersInUse = new AtomicInteger();
+        final AtomicInteger maxHintersInUse = new AtomicInteger();
+        final RecordingLog log = new RecordingLog();
+        final JSHinterFactory factory = new JSHinterFactory()
+        {
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public JSHinter createHinter(final Log log)
+            {
+                hintersCreated.incrementAndGet();
+                return createNoopHinter();
+            }
+        };
+
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int threadIdx = 0; threadIdx < threadCount; threadIdx++)
+        {
+            tasks.add(new Callable<Void>()
+            {
+
+                /**
+                 *
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Void call() throws Exception
+                {
+                    for (int idx = 0; idx < acquisitionsPerThread; idx++)
+                    {
+                        final PooledJSHinter hinter = pool.acquire(log, factory);
+                        try
+                        {
+                            final int inUse = hintersInUse.incrementAndGet();
+                            int maxInUse = maxHintersInUse.get();
+                            while (inUse > maxInUse && !maxHintersInUse.compareAndSet(maxInUse, inUse))
+                            {
+                                maxInUse = maxHintersInUse.get();
+                            }
+                            Thread.yield();
+                        }
+                        finally
+                        {
+                            hintersInUse.decrementAndGet();
+                            pool.release(hinter);
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try
+        {
+            for (final Future<Void> result : executor.invokeAll(tasks))
+            {
+                result.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        Assert.assertTrue("Concurrency limit was exceeded", maxHintersInUse.get() <= concurrencyLimit);
+        Assert.assertTrue("Idle hinters were not reused", hintersCreated.get() <= concurrencyLimit);
+    }
+
+    @Test
+    public void testDifferentConcurrencyLimitsAreRespected() throws Exception
+    {
+        final RecordingLog log = new RecordingLog();
+        final JSHinterFactory factory = createNoopHinterFactory();
+
+        final JSHinterPool singlePool = JSHinterPool.getSharedPool("test|limit", 1, log);
+        final JSHinterPool triplePool = JSHinterPool.getSharedPool("test|limit", 3, log);
+        Assert.assertTrue("No warning should be logged for different limits", log.getLines("warn").isEmpty());
+
+        final PooledJSHinter singleHinter = singlePool.acquire(log, factory);
+        final List<PooledJSHinter> tripleHinters = new ArrayList<>();
+        for (int idx = 0; idx < 3; idx++)
+        {
+            tripleHinters.add(triplePool.acquire(log, factory));
+        }
+
+        // limit of 1 is exhausted, regardless of the hinters in use via the limit of 3
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Future<PooledJSHinter> pendingHinter = executor.submit(new Callable<PooledJSHinter>()
+        {
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public PooledJSHinter call() throws Exception
+            {
+                return singlePool.acquire(log, factory);
+            }
+        });
+        try
+        {
+            pendingHinter.get(100, TimeUnit.MILLISECONDS);
+            Assert.fail("Limit of 1 should not have allowed for a second hinter");
+        }
+        catch (final TimeoutException expected)
+        {
+            // expected
+        }
+
+        singlePool.release(singleHinter);
+        try
+        {
+            singlePool.release(pendingHinter.get(5, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        for (final PooledJSHinter hinter : tripleHinters)
+        {
+            triplePool.release(hinter);
+        }
+    }
+
+    @Test
+    public void testIdleHintersAreBounded() throws Exception
+    {
+        final int concurrencyLimit = 2;
+        final AtomicInteger hintersCreated = new AtomicInteger();
+        final JSHinterPool pool = new JSHinterPool(new Semaphore(4, true), concurrencyLimit)
+        {
+            // no customisation - only exposes protected constructor
+        };
+        final RecordingLog log = new RecordingLog();
+        final JSHinterFactory factory = new JSHinterFactory()
+        {
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public JSHinter createHinter(final Log log)
+            {
+                hintersCreated.incrementAndGet();
+                return createNoopHinter();
+            }
+        };
+
+        final List<PooledJSHinter> hinters = new ArrayList<>();
+        for (int idx = 0; idx < 4; idx++)
+        {
+            hinters.add(pool.acquire(log, factory));
+        }
+        for (final PooledJSHinter hinter : hinters)
+        {
+            pool.release(hinter);
+        }
+        Assert.assertEquals(4, hintersCreated.get());
+
+        hinters.clear();
+        for (int idx = 0; idx < 4; idx++)
+        {
+            hinters.add(pool.acquire(log, factory));
+        }
+        Assert.assertEquals("Only the bounded number of idle hinters should have been retained", 6, hintersCreated.get());
+        for (final PooledJSHinter hinter : hinters)
+        {
+            pool.release(hinter);
+        }
+    }
+
+    @Test
+    public void testReusedHinterDelegatesToCurrentLog() throws Exception
+    {
+        final JSHinterPool pool = new JSHinterPool(new Semaphore(1, true), 1)
+        {
+            // no customisation - only exposes protected constructor
+        };
+        final JSHinterFactory factory = createNoopHinterFactory();
+
+        final RecordingLog debugLog = new RecordingLog();
+        final PooledJSHinter hinter = pool.acquire(debugLog, factory);
+        Assert.assertTrue(hinter.getLog().isDebugEnabled());
+        pool.release(hinter);
+
+        final RecordingLog quietLog = new RecordingLog()
+        {
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public boolean isDebugEnabled()
+            {
+                return false;
+            }
+        };
+        final PooledJSHinter reusedHinter = pool.acquire(quietLog, factory);
+        Assert.assertSame(hinter, reusedHinter);
+        Assert.assertFalse("Reused hinter should check log levels against the log of its current user",
+                reusedHinter.getLog().isDebugEnabled());
+        pool.release(reusedHinter);
+    }
+
+    protected static JSHinterFactory createNoopHinterFactory()
+    {
+        return new JSHinterFactory()
+        {
+
+            /**
+             *
+             * {@inheritDoc}
+             */
+            @Override
+            public JSHinter createHinter(final Log log)
+            {
+                return createNoopHinter();
+            }
+        };
+    }
+
+    protected static JSHinter createNoopHinter()
+    {
+        return (JSHinter) Proxy.newProxyInstance(JSHinter.class.getClassLoader(), new Class<?>[] { JSHinter.class },
+                new InvocationHandler()
+                {
+
+                    /**
+                     *
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public Object invoke(final Object proxy, final Method method, final Object[] args)
+                    {
+                        return null;
+                    }
+                });
+    }
+}
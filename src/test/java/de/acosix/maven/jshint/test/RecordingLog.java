@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Instances of this class record all log output in addition to printing it, so that tests can verify the content and order of the output.
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class RecordingLog extends SystemStreamLog
+{
+
+    protected final List<String> lines = new ArrayList<>();
+
+    /**
+     * Retrieves all recorded output with each line prefixed by its level in square brackets, e.g. {@code [info] }.
+     *
+     * @return the recorded output in order of logging
+     */
+    public synchronized List<String> getLines()
+    {
+        return new ArrayList<>(this.lines);
+    }
+
+    /**
+     * Retrieves the recorded output of a specific level.
+     *
+     * @param level
+     *            the level of output to retrieve, i.e. one of {@code debug}, {@code info}, {@code warn} and {@code error}
+     * @return the recorded output in order of logging
+     */
+    public synchronized List<String> getLines(final String level)
+    {
+        final List<String> lines = new ArrayList<>();
+        final String prefix = "[" + level + "] ";
+        for (final String line : this.lines)
+        {
+            if (line.startsWith(prefix))
+            {
+                lines.add(line.substring(prefix.length()));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Clears all recorded output.
+     */
+    public synchronized void clear()
+    {
+        this.lines.clear();
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDebugEnabled()
+    {
+        // isDebugEnabled in base class yields false instead of debug printing output
+        return true;
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void debug(final CharSequence content)
+    {
+        this.record("debug", content);
+        super.debug(content);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void debug(final CharSequence content, final Throwable error)
+    {
+        this.record("debug", content);
+        super.debug(content, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void info(final CharSequence content)
+    {
+        this.record("info", content);
+        super.info(content);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void info(final CharSequence content, final Throwable error)
+    {
+        this.record("info", content);
+        super.info(content, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void warn(final CharSequence content)
+    {
+        this.record("warn", content);
+        super.warn(content);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void warn(final CharSequence content, final Throwable error)
+    {
+        this.record("warn", content);
+        super.warn(content, error);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(final CharSequence content)
+    {
+        this.record("error", content);
+        super.error(content);
+    }
+
+    /**
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void error(final CharSequence content, final Throwable error)
+    {
+        this.record("error", content);
+        super.error(content, error);
+    }
+
+    protected synchronized void record(final String level, final CharSequence content)
+    {
+        this.lines.add("[" + level + "] " + content);
+    }
+}
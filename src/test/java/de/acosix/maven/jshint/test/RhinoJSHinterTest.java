@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Script;
+
+import de.acosix.maven.jshint.RhinoJSHinter;
+
+/**
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class RhinoJSHinterTest
+{
+
+    /**
+     * Exposes the handling of precompiled scripts for inspection.
+     */
+    protected static class InspectableRhinoJSHinter extends RhinoJSHinter
+    {
+
+        protected InspectableRhinoJSHinter(final Log log, final String version)
+        {
+            super(log, version, false);
+        }
+
+        protected Class<? extends Script> getPrecompiledJSHintScript()
+        {
+            return this.precompiledJSHintScript;
+        }
+
+        protected Script compileJSHintScript(final int optimizationLevel) throws IOException
+        {
+            final Context cx = Context.enter();
+            try
+            {
+                cx.setOptimizationLevel(optimizationLevel);
+                return this.doCompileJSHintScript(cx);
+            }
+            finally
+            {
+                Context.exit();
+            }
+        }
+    }
+
+    @Test
+    public void testPrecompiledScriptUsed() throws Exception
+    {
+        final String precompiledScriptPackage = loadBuildProperties().getProperty("precompiledScriptPackage");
+        Assert.assertNotNull("Package of precompiled scripts not provided by build", precompiledScriptPackage);
+        Assert.assertFalse("Package of precompiled scripts not filtered", precompiledScriptPackage.contains("${"));
+
+        final RecordingLog log = new RecordingLog();
+        final InspectableRhinoJSHinter hinter = new InspectableRhinoJSHinter(log, "2.9.3");
+
+        final Class<? extends Script> precompiledScript = hinter.getPrecompiledJSHintScript();
+        Assert.assertNotNull("Precompiled script was not found", precompiledScript);
+        Assert.assertEquals(precompiledScriptPackage + ".JSHint_2_9_3_Rhino", precompiledScript.getName());
+
+        final Script script = hinter.compileJSHintScript(9);
+        Assert.assertTrue("Precompiled script was not used", precompiledScript.isInstance(script));
+        Assert.assertTrue(log.getLines("debug").contains("Using precompiled JSHint script"));
+    }
+
+    @Test
+    public void testPrecompiledScriptNotUsedInInterpretedMode() throws Exception
+    {
+        final InspectableRhinoJSHinter hinter = new InspectableRhinoJSHinter(new RecordingLog(), "2.9.3");
+
+        final Script script = hinter.compileJSHintScript(-1);
+        Assert.assertNotNull(script);
+        Assert.assertFalse("Precompiled script was used in interpreted mode", hinter.getPrecompiledJSHintScript().isInstance(script));
+    }
+
+    protected static Properties loadBuildProperties() throws IOException
+    {
+        final Properties properties = new Properties();
+        final InputStream propertiesInputStream = RhinoJSHinter.class.getResourceAsStream("build.properties");
+        Assert.assertNotNull("Build properties not found", propertiesInputStream);
+        try
+        {
+            properties.load(propertiesInputStream);
+        }
+        finally
+        {
+            IOUtil.close(propertiesInputStream);
+        }
+        return properties;
+    }
+}
@@ -60,13 +60,16 @@ public class TestProjectStub extends MavenProjectStub
         this.setUrl(model.getUrl());
         this.setPackaging(model.getPackaging());
 
+        // keep output of tests out of the test resources
+        final File buildDirectory = new File(super.getBasedir(), "target/test-projects/" + new File(testResourcesPath).getName());
+
         final Build build = new Build();
         build.setFinalName(model.getArtifactId());
-        build.setDirectory(basedir + "/target");
+        build.setDirectory(buildDirectory.getPath());
         build.setSourceDirectory(basedir + "/src/main/java");
-        build.setOutputDirectory(basedir + "/target/classes");
+        build.setOutputDirectory(buildDirectory.getPath() + "/classes");
         build.setTestSourceDirectory(basedir + "/src/test/java");
-        build.setTestOutputDirectory(basedir + "/target/test-classes");
+        build.setTestOutputDirectory(buildDirectory.getPath() + "/test-classes");
         this.setBuild(build);
 
         final List<String> compileSourceRoots = new ArrayList<>();
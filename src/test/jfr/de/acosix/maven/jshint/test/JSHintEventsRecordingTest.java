@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Acosix GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.acosix.maven.jshint.test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.testing.MojoRule;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import de.acosix.maven.jshint.JSHintEvents;
+import de.acosix.maven.jshint.JSHintEvents.Type;
+import de.acosix.maven.jshint.JSHintMojo;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests the JDK Flight Recorder events of the JSHint pipeline. This test is only compiled and run when building on a JDK providing the
+ * {@code jdk.jfr} API (see the {@code jfr} profile).
+ *
+ * @author Axel Faust, <a href="http://acosix.de">Acosix GmbH</a>
+ */
+public class JSHintEventsRecordingTest
+{
+
+    @Rule
+    public MojoRule rule = new MojoRule();
+
+    @Test
+    public void testEventsRecorded() throws Exception
+    {
+        Assert.assertTrue("JFR events should be available", JSHintEvents.isAvailable());
+
+        final TestProjectStub projectStub = new TestProjectStub("src/test/resources/projects/generic-tests");
+        final Mojo mojo = this.rule.lookupConfiguredMojo(projectStub, "jshint");
+        mojo.setLog(new RecordingLog());
+
+        final JSHintMojo jsHintMojo = (JSHintMojo) mojo;
+        // version not used by any other test so the pooled engine has to be initialised
+        jsHintMojo.setJshintVersion("2.9.1");
+        jsHintMojo.setPreferRhino(true);
+        // findings of the older version are irrelevant
+        jsHintMojo.setFailOnError(false);
+        jsHintMojo.setStreamReports(true);
+        jsHintMojo.setCheckstyleReportFile("jshint-checkstyle-jfr.xml");
+        jsHintMojo.setJsHintDefaultConfigFile("jshint.config-acosix-default.json");
+        jsHintMojo.setIncludes(Arrays.asList("*.js", "test-jshintrc/*.js"));
+
+        final File recordingFile = new File(projectStub.getBuild().getDirectory(), "jshint-events.jfr");
+        final Recording recording = new Recording();
+        try
+        {
+            recording.enable("de.acosix.maven.jshint.EngineInitialisation");
+            recording.enable("de.acosix.maven.jshint.Lint");
+            recording.enable("de.acosix.maven.jshint.Report");
+            recording.start();
+
+            jsHintMojo.execute();
+
+            recording.stop();
+            recording.dump(recordingFile.toPath());
+        }
+        finally
+        {
+            recording.close();
+        }
+
+        final Set<String> recordedEventTypes = new HashSet<>();
+        for (final RecordedEvent event : RecordingFile.readAllEvents(recordingFile.toPath()))
+        {
+            recordedEventTypes.add(event.getEventType().getName());
+        }
+        Assert.assertTrue("Engine initialisation was not recorded: " + recordedEventTypes,
+                recordedEventTypes.contains("de.acosix.maven.jshint.EngineInitialisation"));
+        Assert.assertTrue("Lint was not recorded: " + recordedEventTypes, recordedEventTypes.contains("de.acosix.maven.jshint.Lint"));
+        Assert.assertTrue("Report was not recorded: " + recordedEventTypes, recordedEventTypes.contains("de.acosix.maven.jshint.Report"));
+
+        // without a running recording, no events are begun
+        for (final Type type : Type.values())
+        {
+            Assert.assertNull(JSHintEvents.begin(type));
+        }
+    }
+}
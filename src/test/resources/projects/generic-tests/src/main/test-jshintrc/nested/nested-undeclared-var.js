@@ -0,0 +1,7 @@
+function simpleAdd(a, b) {
+    "use strict";
+    result = a + b;
+    return result;
+}
+
+simpleAdd(1, 2);
\ No newline at end of file